@@ -3,11 +3,48 @@ import javax.swing.*;
 import javax.swing.plaf.FontUIResource;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import javax.swing.border.LineBorder;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import javax.imageio.ImageIO;
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 
 /*
@@ -37,26 +74,84 @@ enum BugLevel {
 
 // ---------------------- User ----------------------
 class User implements Serializable {
+    // Pinned to the value computed for the original class so existing users.dat files keep loading.
+    private static final long serialVersionUID = -6204855680973842630L;
+
     private String username;
-    private String password;
+    private String password; // plaintext, only in users.dat files written before hashing; cleared by migratePassword()
     private Role role;
+    private byte[] salt;
+    private byte[] passwordHash;
+    private int iterations;
 
     public User(String username, String password, Role role) {
+        this(username, password, role, PasswordHasher.ITERATIONS);
+    }
+
+    // Fewer iterations are only for synthetic accounts (WorkloadGenerator)
+    User(String username, String password, Role role, int iterations) {
         this.username = username;
-        this.password = password;
         this.role = role;
+        setPassword(password, iterations);
     }
 
     public String getUsername() { return username; }
-    public String getPassword() { return password; }
     public Role getRole() { return role; }
+    byte[] getSalt() { return salt; }
+
+    public void setPassword(String password) {
+        setPassword(password, PasswordHasher.ITERATIONS);
+    }
+
+    private void setPassword(String password, int iterations) {
+        salt = PasswordHasher.newSalt();
+        this.iterations = iterations;
+        passwordHash = PasswordHasher.hash(password.toCharArray(), salt, iterations);
+        this.password = null;
+    }
 
-    public void setPassword(String password) { this.password = password; }
     public void setRole(Role role) { this.role = role; }
+
+    // Full PBKDF2 check; UserDirectory.authenticate adds caching on top
+    public boolean checkPassword(char[] candidate) {
+        return passwordHash != null && MessageDigest.isEqual(passwordHash, PasswordHasher.hash(candidate, salt, iterations));
+    }
+
+    boolean hasPlaintextPassword() { return passwordHash == null && password != null; }
+
+    void migratePassword() {
+        if (hasPlaintextPassword()) setPassword(password);
+    }
+}
+
+// ---------------------- PasswordHasher ----------------------
+class PasswordHasher {
+    static final int ITERATIONS = 210_000; // stored per user, so it can be raised later without breaking old hashes
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    static byte[] newSalt() {
+        byte[] salt = new byte[16];
+        RANDOM.nextBytes(salt);
+        return salt;
+    }
+
+    static byte[] hash(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, 256);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
 }
 
 // ---------------------- Bug ----------------------
 class Bug implements Serializable {
+    // Pinned to the value computed for the original class so existing bugs.dat files keep loading.
+    private static final long serialVersionUID = 6321191930178197101L;
+
     private int id;
     private String name;
     private String type;
@@ -68,117 +163,2841 @@ class Bug implements Serializable {
     private String assignedDeveloper;
     private String screenshotPath;
     private String reportedBy;
+    private Date closedDate; // set when the bug moves to CLOSED; null for bugs closed before this was tracked
+
+    public Bug(int id, String name, String type, BugPriority priority, BugLevel level,
+               String projectName, Date date, BugStatus status, String assignedDeveloper,
+               String screenshotPath, String reportedBy) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.priority = priority;
+        this.level = level;
+        this.projectName = projectName;
+        this.date = date;
+        this.status = status;
+        this.assignedDeveloper = assignedDeveloper;
+        this.screenshotPath = screenshotPath;
+        this.reportedBy = reportedBy;
+    }
+
+    // Getters / setters
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public String getType() { return type; }
+    public BugPriority getPriority() { return priority; }
+    public BugLevel getLevel() { return level; }
+    public String getProjectName() { return projectName; }
+    public Date getDate() { return date; }
+    public BugStatus getStatus() { return status; }
+    public String getAssignedDeveloper() { return assignedDeveloper; }
+    public String getScreenshotPath() { return screenshotPath; }
+    public String getReportedBy() { return reportedBy; }
+    public Date getClosedDate() { return closedDate; }
+
+    public void setStatus(BugStatus status) {
+        if (status == BugStatus.CLOSED && this.status != BugStatus.CLOSED) closedDate = new Date();
+        else if (status != BugStatus.CLOSED) closedDate = null;
+        this.status = status;
+    }
+    public void setAssignedDeveloper(String assignedDeveloper) { this.assignedDeveloper = assignedDeveloper; }
+    void setClosedDate(Date closedDate) { this.closedDate = closedDate; } // backdated history from WorkloadGenerator
+
+    // Takes over status and closedDate from another copy of this bug (used by SyncClient)
+    void copyStatusFrom(Bug other) {
+        status = other.status;
+        closedDate = other.closedDate;
+    }
+}
+
+// ---------------------- FileHandler ----------------------
+/*
+  Crash-safe persistence for users.dat and bugs.dat
+  - every save writes a uniquely named <file>.<random>.tmp, fsyncs it, atomically renames it over <file> and fsyncs the directory,
+    so a crash leaves either the old file or the new one, never a truncated mix
+  - bugs.dat is a header, then blocks of up to BLOCK_SIZE bugs each with its own CRC32C, then an end record
+    (block count + total bugs); each block is an independent serialization stream
+  - loading checks each block's CRC as it streams through the file (no second pass). If a block is
+    damaged, or the end record is missing, the bugs from every good block before it are kept, the damaged
+    file is preserved as <file>.corrupt-<random>, and a warning is printed instead of silently loading nothing
+  - old bugs.dat files (a single serialized list) are still read; the next save converts them
+*/
+class FileHandler {
+    private static final String USERS_FILE = "users.dat";
+    private static final String SUBSCRIPTIONS_FILE = "subscriptions.dat";
+    static final String BUGS_FILE = "bugs.dat";
+
+    static final int MAGIC = 0x42545332; // "BTS2"
+    private static final int FORMAT_VERSION = 1;
+    static final int BLOCK_SIZE = 1024;
+    private static final byte DATA_BLOCK = 'B';
+    private static final byte END_BLOCK = 'E';
+
+    private static final Random TEMP_NAMES = new SecureRandom();
+
+    // Lets PersistenceFaultHarness cut writes short; identity in normal use
+    static java.util.function.UnaryOperator<OutputStream> outputWrapper = java.util.function.UnaryOperator.identity();
+
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    public static void saveUsers(List<User> users) {
+        try {
+            writeAtomically(Paths.get(USERS_FILE), out -> {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(users);
+                oos.flush();
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static List<User> loadUsers() {
+        List<User> users = new ArrayList<>();
+        File f = new File(USERS_FILE);
+        if (!f.exists()) return users;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            users = (List<User>) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            preserveCorrupt(f.toPath());
+        }
+        return users;
+    }
+
+    public static void saveSubscriptions(List<NotificationCenter.Subscription> subscriptions) {
+        try {
+            writeAtomically(Paths.get(SUBSCRIPTIONS_FILE), out -> {
+                ObjectOutputStream oos = new ObjectOutputStream(out);
+                oos.writeObject(new ArrayList<>(subscriptions));
+                oos.flush();
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static List<NotificationCenter.Subscription> loadSubscriptions() {
+        List<NotificationCenter.Subscription> subscriptions = new ArrayList<>();
+        File f = new File(SUBSCRIPTIONS_FILE);
+        if (!f.exists()) return subscriptions;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(f)))) {
+            subscriptions = (List<NotificationCenter.Subscription>) ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            preserveCorrupt(f.toPath());
+        }
+        return subscriptions;
+    }
+
+    public static void saveBugs(List<Bug> bugs) {
+        try {
+            saveBugs(bugs, Paths.get(BUGS_FILE));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static List<Bug> loadBugs() {
+        return loadBugs(Paths.get(BUGS_FILE));
+    }
+
+    static void saveBugs(List<Bug> bugs, Path file) throws IOException {
+        writeAtomically(file, out -> {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(FORMAT_VERSION);
+            data.writeInt(BLOCK_SIZE);
+            ByteArrayOutputStream block = new ByteArrayOutputStream(64 * 1024);
+            java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            int blocks = 0;
+            for (int from = 0; from < bugs.size(); from += BLOCK_SIZE) {
+                int to = Math.min(bugs.size(), from + BLOCK_SIZE);
+                block.reset();
+                try (ObjectOutputStream oos = new ObjectOutputStream(block)) {
+                    oos.writeObject(bugs.subList(from, to).toArray(new Bug[0]));
+                }
+                crc.reset();
+                crc.update(block.toByteArray(), 0, block.size());
+                data.writeByte(DATA_BLOCK);
+                data.writeInt(block.size());
+                data.writeInt(to - from);
+                data.writeInt((int) crc.getValue());
+                block.writeTo(data);
+                blocks++;
+            }
+            data.writeByte(END_BLOCK);
+            data.writeInt(blocks);
+            data.writeInt(bugs.size());
+            data.flush();
+        });
+    }
+
+    static List<Bug> loadBugs(Path file) {
+        List<Bug> bugs = new ArrayList<>();
+        if (!Files.exists(file)) return bugs;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024))) {
+            in.mark(4);
+            int magic = in.readInt();
+            if ((magic >>> 16) == 0xACED) { // Java serialization stream: pre-block format
+                in.reset();
+                bugs.addAll((List<Bug>) new ObjectInputStream(in).readObject());
+                return bugs;
+            }
+            if (magic != MAGIC) throw new IOException("not a bugs file");
+            if (in.readInt() != FORMAT_VERSION) throw new IOException("unsupported bugs file version");
+            in.readInt(); // block size used by the writer; informational
+            long fileSize = Files.size(file);
+            java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            int blocks = 0;
+            while (true) {
+                byte type = in.readByte();
+                if (type == END_BLOCK) {
+                    if (in.readInt() != blocks || in.readInt() != bugs.size()) throw new IOException("end record does not match blocks");
+                    return bugs;
+                }
+                if (type != DATA_BLOCK) throw new IOException("bad block marker at block " + blocks);
+                int length = in.readInt();
+                int count = in.readInt();
+                int expected = in.readInt();
+                if (length < 0 || length > fileSize || count < 0) throw new IOException("bad block header at block " + blocks);
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != expected) throw new IOException("checksum mismatch in block " + blocks);
+                Bug[] chunk = (Bug[]) new ObjectInputStream(new ByteArrayInputStream(payload)).readObject();
+                if (chunk.length != count) throw new IOException("record count mismatch in block " + blocks);
+                bugs.addAll(Arrays.asList(chunk));
+                blocks++;
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // bugs holds everything up to the last block that verified
+            System.err.println("WARNING: " + file + " is damaged (" + e + "); recovered " + bugs.size() + " bug(s) from intact blocks");
+            preserveCorrupt(file);
+        }
+        return bugs;
+    }
+
+    // temp file + fsync + atomic rename + directory fsync. The temp file has a unique name, so processes
+    // saving the same file at once each rename a complete file of their own (the last one wins)
+    static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        // createFile fails rather than share a name; unlike createTempFile it keeps the usual umask permissions
+        Path tmp = Files.createFile(dir.resolve(target.getFileName() + "." + Long.toHexString(TEMP_NAMES.nextLong()) + ".tmp"));
+        try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+            OutputStream out = new BufferedOutputStream(outputWrapper.apply(fos), 64 * 1024);
+            writer.write(out);
+            out.flush();
+            fos.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (java.nio.file.AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (java.nio.channels.FileChannel ch = java.nio.channels.FileChannel.open(dir, java.nio.file.StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException ignored) {
+            // directories cannot be opened for sync on some platforms (e.g. Windows); the rename is still atomic
+        }
+    }
+
+    // Keep a copy of a damaged file so the next save cannot destroy what is left in it
+    private static void preserveCorrupt(Path file) {
+        try {
+            Path copy = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".corrupt-", "");
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("WARNING: damaged file preserved as " + copy);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
+
+// ---------------------- BackupStore ----------------------
+/*
+  Incremental, compressed snapshots of bugs.dat under backups/
+  - a snapshot reads the current bugs.dat (saves replace it by atomic rename, so the open file stays a
+    consistent version and writers never wait) and splits it at its own record boundaries: the header,
+    each block of BLOCK_SIZE bugs, the end record
+  - each piece is stored once under blocks/xx/<sha256>.z, deflated at BEST_SPEED; blocks of bugs that did not
+    change since an earlier snapshot hash the same and cost nothing, so a snapshot writes only changed blocks
+  - snapshots/<name>.snap lists the pieces in order with the SHA-256 of the whole file; every snapshot is
+    complete on its own, so any of them can be restored, and deleting one never breaks another
+  - restore re-hashes every piece, checks each block's CRC32C and the whole-file SHA-256 before the restored
+    file is renamed into place
+*/
+class BackupStore {
+    static final Path DIR = Paths.get("backups");
+    private static final int MAGIC = 0x42545342; // "BTSB"
+    private static final int FORMAT_VERSION = 1;
+    private static final java.time.format.DateTimeFormatter NAME_FORMAT =
+            java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneId.systemDefault());
+
+    record Summary(String name, int pieces, int newPieces, long fileBytes, long storedBytes, int bugs) {}
+
+    private record Manifest(long created, long fileBytes, int bugs, byte[] fileSha, List<byte[]> shas, List<Integer> lengths) {}
+
+    private static java.util.concurrent.ScheduledExecutorService scheduler;
+
+    // Snapshots every interval on a daemon thread; failures (a damaged bugs.dat included) are printed and the next run tries again
+    static synchronized void schedule(long minutes) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "backup");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(Paths.get(FileHandler.BUGS_FILE));
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace(); // anything escaping here would cancel every later run
+            }
+        }, minutes, minutes, java.util.concurrent.TimeUnit.MINUTES);
+    }
+
+    static synchronized Summary snapshot(Path source) throws IOException {
+        if (!Files.exists(source)) throw new FileNotFoundException(source.toString());
+        MessageDigest whole = sha256();
+        java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+        List<byte[]> shas = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        int newPieces = 0, bugs = -1;
+        long fileBytes = 0, stored = 0;
+        try (java.nio.channels.FileChannel ch = java.nio.channels.FileChannel.open(source);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(java.nio.channels.Channels.newInputStream(ch), 64 * 1024))) {
+            long size = ch.size(); // of the file we have open, even if a save renames a new one over it meanwhile
+            while (true) {
+                byte[] piece = nextPiece(in, shas.isEmpty(), size - fileBytes);
+                if (piece == null) break;
+                if (!shas.isEmpty()) checkBlock(piece, shas.size(), crc); // a damaged bugs.dat must not become a snapshot
+                if (piece[0] == 'E' && piece.length == 9) bugs = ByteBuffer.wrap(piece, 5, 4).getInt();
+                byte[] sha = sha256().digest(piece);
+                whole.update(piece);
+                Path blob = blobPath(sha);
+                if (!Files.exists(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    FileHandler.writeAtomically(blob, out -> {
+                        DeflaterOutputStream z = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED, true), 64 * 1024);
+                        z.write(piece);
+                        z.finish();
+                    });
+                    newPieces++;
+                    stored += Files.size(blob);
+                }
+                shas.add(sha);
+                lengths.add(piece.length);
+                fileBytes += piece.length;
+            }
+        }
+        long created = System.currentTimeMillis();
+        String name = "snapshot-" + NAME_FORMAT.format(Instant.ofEpochMilli(created));
+        Path file = DIR.resolve("snapshots").resolve(name + ".snap");
+        Files.createDirectories(file.getParent());
+        writeManifest(file, new Manifest(created, fileBytes, bugs, whole.digest(), shas, lengths));
+        return new Summary(name, shas.size(), newPieces, fileBytes, stored, bugs);
+    }
+
+    // Snapshot names, oldest first
+    static List<String> list() throws IOException {
+        List<String> names = new ArrayList<>();
+        Path dir = DIR.resolve("snapshots");
+        if (!Files.isDirectory(dir)) return names;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.snap")) {
+            for (Path p : files) {
+                String f = p.getFileName().toString();
+                names.add(f.substring(0, f.length() - ".snap".length()));
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    static String describe(String name) throws IOException {
+        Manifest m = readManifest(manifestPath(name));
+        return String.format("%s\t%s\t%,d bugs\t%,d bytes", name, Instant.ofEpochMilli(m.created()), m.bugs(), m.fileBytes());
+    }
+
+    // Verifies the snapshot and, when target is not null, writes it there atomically; returns the bug count
+    static int restore(String name, Path target) throws IOException {
+        Manifest m = readManifest(manifestPath(name));
+        FileHandler.ContentWriter writer = out -> {
+            MessageDigest whole = sha256();
+            java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+            for (int i = 0; i < m.shas().size(); i++) {
+                byte[] sha = m.shas().get(i);
+                byte[] piece;
+                try (InputStream in = new InflaterInputStream(Files.newInputStream(blobPath(sha)), new Inflater(true), 64 * 1024)) {
+                    piece = in.readNBytes(m.lengths().get(i) + 1);
+                }
+                if (piece.length != m.lengths().get(i) || !MessageDigest.isEqual(sha, sha256().digest(piece)))
+                    throw new IOException("block " + i + " (" + HexFormat.of().formatHex(sha) + ") is damaged");
+                if (i > 0) checkBlock(piece, i, crc);
+                whole.update(piece);
+                out.write(piece);
+            }
+            if (!MessageDigest.isEqual(m.fileSha(), whole.digest())) throw new IOException("restored file does not match the snapshot checksum");
+        };
+        if (target == null) {
+            writer.write(OutputStream.nullOutputStream());
+        } else {
+            FileHandler.writeAtomically(target, writer);
+        }
+        return m.bugs();
+    }
+
+    // The next record of a bugs.dat file as raw bytes, or null at end of file; a pre-block file is one piece
+    // remaining bounds the block length read from the header, so a damaged file fails with an IOException
+    private static byte[] nextPiece(DataInputStream in, boolean first, long remaining) throws IOException {
+        in.mark(1);
+        int type = in.read();
+        if (type < 0) return null;
+        in.reset();
+        if (first) { // the header; 'B' (0x42) also starts "BTS2", so it cannot be told apart by its first byte
+            byte[] head = in.readNBytes(12);
+            if (head.length == 12 && ByteBuffer.wrap(head).getInt() == FileHandler.MAGIC) return head;
+            byte[] rest = in.readAllBytes();
+            byte[] all = Arrays.copyOf(head, head.length + rest.length);
+            System.arraycopy(rest, 0, all, head.length, rest.length);
+            return all;
+        }
+        if (type == 'E') {
+            byte[] end = new byte[9];
+            in.readFully(end);
+            return end;
+        }
+        if (type != 'B') throw new IOException("bad block marker");
+        byte[] head = new byte[13];
+        in.readFully(head);
+        int length = ByteBuffer.wrap(head, 1, 4).getInt();
+        if (length < 0 || length > remaining - head.length) throw new IOException("bad block header (length " + length + ")");
+        byte[] piece = Arrays.copyOf(head, 13 + length);
+        in.readFully(piece, 13, length);
+        return piece;
+    }
+
+    // Data blocks ('B') carry a CRC32C of their payload; the header (piece 0) and end record do not
+    private static void checkBlock(byte[] piece, int i, java.util.zip.CRC32C crc) throws IOException {
+        if (piece[0] != 'B') return;
+        if (piece.length < 13) throw new IOException("block " + i + " is truncated");
+        ByteBuffer header = ByteBuffer.wrap(piece, 1, 12);
+        int length = header.getInt();
+        header.getInt();
+        crc.reset();
+        crc.update(piece, 13, piece.length - 13);
+        if (length != piece.length - 13 || (int) crc.getValue() != header.getInt())
+            throw new IOException("block " + i + " fails its CRC32C check");
+    }
+
+    private static Path blobPath(byte[] sha) {
+        String h = HexFormat.of().formatHex(sha);
+        return DIR.resolve("blocks").resolve(h.substring(0, 2)).resolve(h + ".z");
+    }
+
+    private static Path manifestPath(String name) throws IOException {
+        if ("latest".equals(name)) {
+            List<String> names = list();
+            if (names.isEmpty()) throw new FileNotFoundException("no snapshots in " + DIR);
+            name = names.get(names.size() - 1);
+        }
+        Path p = Paths.get(name);
+        if (Files.exists(p)) return p;
+        p = DIR.resolve("snapshots").resolve(name.endsWith(".snap") ? name : name + ".snap");
+        if (!Files.exists(p)) throw new FileNotFoundException("no snapshot " + name);
+        return p;
+    }
+
+    private static void writeManifest(Path file, Manifest m) throws IOException {
+        FileHandler.writeAtomically(file, out -> {
+            java.util.zip.CheckedOutputStream checked = new java.util.zip.CheckedOutputStream(out, new java.util.zip.CRC32C());
+            DataOutputStream data = new DataOutputStream(checked);
+            data.writeInt(MAGIC);
+            data.writeInt(FORMAT_VERSION);
+            data.writeLong(m.created());
+            data.writeLong(m.fileBytes());
+            data.writeInt(m.bugs());
+            data.write(m.fileSha());
+            data.writeInt(m.shas().size());
+            for (int i = 0; i < m.shas().size(); i++) {
+                data.write(m.shas().get(i));
+                data.writeInt(m.lengths().get(i));
+            }
+            data.flush();
+            data.writeInt((int) checked.getChecksum().getValue());
+            data.flush();
+        });
+    }
+
+    private static Manifest readManifest(Path file) throws IOException {
+        java.util.zip.CheckedInputStream checked = new java.util.zip.CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), new java.util.zip.CRC32C());
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) throw new IOException(file + " is not a snapshot");
+            if (in.readInt() != FORMAT_VERSION) throw new IOException("unsupported snapshot version in " + file);
+            long created = in.readLong(), fileBytes = in.readLong();
+            int bugs = in.readInt();
+            byte[] fileSha = in.readNBytes(32);
+            int count = in.readInt();
+            if (count < 0) throw new IOException(file + " is damaged");
+            List<byte[]> shas = new ArrayList<>(count);
+            List<Integer> lengths = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                shas.add(in.readNBytes(32));
+                lengths.add(in.readInt());
+            }
+            int expected = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expected) throw new IOException(file + " fails its checksum");
+            return new Manifest(created, fileBytes, bugs, fileSha, shas, lengths);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
+
+// ---------------------- PersistenceFaultHarness ----------------------
+/*
+  Fault injection for FileHandler, run with: BugCli fault-test [trials] [seed]
+  - interrupted writes: each save is cut off at a random byte offset; bugs.dat must still load exactly
+    as it was after the last completed save
+  - on-disk damage: a copy of bugs.dat is truncated or has a byte flipped at a random offset; loading must
+    not throw and must return a prefix of the committed bugs (whole blocks only, or everything)
+  Works in a temporary directory; never touches the real data files.
+*/
+class PersistenceFaultHarness {
+    private static final class SimulatedCrash extends IOException {
+        SimulatedCrash() { super("simulated crash"); }
+    }
+
+    // Throws once killAt bytes have gone through, like a process dying mid-write
+    private static final class CrashingOutputStream extends FilterOutputStream {
+        private long remaining;
+
+        CrashingOutputStream(OutputStream out, long killAt) {
+            super(out);
+            remaining = killAt;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (remaining-- <= 0) throw new SimulatedCrash();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > remaining) {
+                out.write(b, off, (int) Math.max(0, remaining));
+                remaining = 0;
+                throw new SimulatedCrash();
+            }
+            remaining -= len;
+            out.write(b, off, len);
+        }
+    }
+
+    // Returns the number of failed checks
+    static int run(int trials, long seed) throws IOException {
+        Random rnd = new Random(seed);
+        Path dir = Files.createTempDirectory("bts-fault");
+        Path file = dir.resolve("bugs.dat");
+        List<Bug> bugs = new ArrayList<>();
+        addBugs(bugs, rnd, 3 * FileHandler.BLOCK_SIZE + rnd.nextInt(FileHandler.BLOCK_SIZE));
+        FileHandler.saveBugs(bugs, file);
+        List<String> committed = fingerprint(bugs);
+
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream())); // recovery warnings are expected here
+        int failures = 0, crashes = 0;
+        try {
+            for (int t = 0; t < trials; t++) {
+                // a few new bugs and status changes, then a save that may die part way
+                addBugs(bugs, rnd, 1 + rnd.nextInt(50));
+                for (int i = 0; i < 20; i++) bugs.get(rnd.nextInt(bugs.size())).setStatus(BugStatus.values()[rnd.nextInt(3)]);
+                long killAt = (long) (rnd.nextDouble() * Files.size(file) * 1.5);
+                FileHandler.outputWrapper = out -> new CrashingOutputStream(out, killAt);
+                boolean crashed = false;
+                try {
+                    FileHandler.saveBugs(bugs, file);
+                } catch (SimulatedCrash e) {
+                    crashed = true;
+                    crashes++;
+                } finally {
+                    FileHandler.outputWrapper = java.util.function.UnaryOperator.identity();
+                }
+                if (!crashed) committed = fingerprint(bugs);
+                if (!fingerprint(FileHandler.loadBugs(file)).equals(committed)) {
+                    failures++;
+                    err.println("trial " + t + ": interrupted write at byte " + killAt + " changed the committed data");
+                }
+
+                // damage a copy of the committed file
+                Path copy = dir.resolve("damaged.dat");
+                byte[] bytes = Files.readAllBytes(file);
+                int at = rnd.nextInt(bytes.length);
+                if (rnd.nextBoolean()) {
+                    Files.write(copy, Arrays.copyOf(bytes, at));
+                } else {
+                    bytes[at] ^= (byte) (1 + rnd.nextInt(255));
+                    Files.write(copy, bytes);
+                }
+                List<String> recovered = fingerprint(FileHandler.loadBugs(copy));
+                boolean wholeBlocks = recovered.size() % FileHandler.BLOCK_SIZE == 0 || recovered.size() == committed.size();
+                if (!wholeBlocks || !recovered.equals(committed.subList(0, Math.min(recovered.size(), committed.size())))) {
+                    failures++;
+                    err.println("trial " + t + ": damage at byte " + at + " recovered something other than a block prefix");
+                }
+            }
+        } finally {
+            System.setErr(err);
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+                for (Path p : ds) Files.deleteIfExists(p);
+            }
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("fault-test: " + trials + " trials, " + crashes + " interrupted writes, "
+                + trials + " damaged copies, " + failures + " failure(s)");
+        return failures;
+    }
+
+    private static void addBugs(List<Bug> bugs, Random rnd, int n) {
+        int next = bugs.isEmpty() ? 1 : bugs.get(bugs.size() - 1).getId() + 1;
+        for (int i = 0; i < n; i++, next++) {
+            bugs.add(new Bug(next, "Bug " + next, "Crash", BugPriority.values()[rnd.nextInt(4)], BugLevel.values()[rnd.nextInt(3)],
+                    "Project " + rnd.nextInt(5), new Date(), BugStatus.OPEN, "dev" + rnd.nextInt(10), "", "tester"));
+        }
+    }
+
+    private static List<String> fingerprint(List<Bug> bugs) {
+        List<String> out = new ArrayList<>(bugs.size());
+        for (Bug b : bugs) out.add(b.getId() + ":" + b.getStatus() + ":" + b.getAssignedDeveloper());
+        return out;
+    }
+}
+
+// ---------------------- EmailSimulator ----------------------
+class EmailSimulator {
+    static PrintStream out = System.out; // the soak harness swaps this for a null stream
+
+    public static void sendEmail(String to, String subject, String body) {
+        out.println("=== EMAIL NOTIFICATION ===");
+        out.println("To: " + to);
+        out.println("Subject: " + subject);
+        out.println("Body: " + body);
+        out.println("==========================");
+    }
+}
+
+// ---------------------- BugEvents ----------------------
+interface BugListener {
+    default void bugAdded(Bug bug) {}
+    default void statusChanged(Bug bug, BugStatus oldStatus) {}
+    default void assigneeChanged(Bug bug, String oldDeveloper) {}
+}
+
+class BugEvents {
+    private static final List<BugListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static void addListener(BugListener l) { listeners.add(l); }
+    public static void removeListener(BugListener l) { listeners.remove(l); }
+
+    public static void fireBugAdded(Bug bug) {
+        for (BugListener l : listeners) l.bugAdded(bug);
+    }
+
+    public static void fireStatusChanged(Bug bug, BugStatus oldStatus) {
+        for (BugListener l : listeners) l.statusChanged(bug, oldStatus);
+    }
+
+    public static void fireAssigneeChanged(Bug bug, String oldDeveloper) {
+        for (BugListener l : listeners) l.assigneeChanged(bug, oldDeveloper);
+    }
+}
+
+// ---------------------- BugReportEngine ----------------------
+/*
+  Trend and cycle-time analytics for the PM reports view.
+  - Counters are kept per (day, project, priority); weeks are folded from days at query time
+  - New bugs (the tail of the list since the last refresh) are aggregated with a parallel stream
+  - Status changes since the last refresh are applied as +/- deltas, so nothing is recomputed from scratch
+  - All aggregation runs on a single worker thread; the EDT only snapshots the tail and dirty bugs
+  - Bugs closed before closedDate was tracked count as opened but not as closed
+*/
+class BugReportEngine implements BugListener {
+    enum Granularity { DAY, WEEK }
+
+    record CellKey(long day, String project, BugPriority priority) {}
+    record GroupKey(String project, BugPriority priority) {}
+
+    // Mutable counters; merged across fork/join subtasks, then folded into the engine's master tally.
+    private static final class Tally {
+        final Map<CellKey, long[]> cells = new HashMap<>();   // {opened, closed}
+        final Map<GroupKey, long[]> cycles = new HashMap<>(); // {sum of OPEN->CLOSED millis, closed count}
+
+        void add(Bug b, long closedAt, int sign) {
+            String project = b.getProjectName() == null ? "" : b.getProjectName();
+            long opened = b.getDate().getTime();
+            cells.computeIfAbsent(new CellKey(dayOf(opened), project, b.getPriority()), k -> new long[2])[0] += sign;
+            if (closedAt < 0) return;
+            cells.computeIfAbsent(new CellKey(dayOf(closedAt), project, b.getPriority()), k -> new long[2])[1] += sign;
+            long[] c = cycles.computeIfAbsent(new GroupKey(project, b.getPriority()), k -> new long[2]);
+            c[0] += sign * (closedAt - opened);
+            c[1] += sign;
+        }
+
+        Tally merge(Tally o) {
+            o.cells.forEach((k, v) -> {
+                long[] mine = cells.computeIfAbsent(k, x -> new long[2]);
+                mine[0] += v[0];
+                mine[1] += v[1];
+            });
+            o.cycles.forEach((k, v) -> {
+                long[] mine = cycles.computeIfAbsent(k, x -> new long[2]);
+                mine[0] += v[0];
+                mine[1] += v[1];
+            });
+            return this;
+        }
+
+        static long dayOf(long millis) {
+            return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).toEpochDay();
+        }
+    }
+
+    // Immutable result handed to the UI.
+    static final class Report {
+        private final Map<CellKey, long[]> cells;
+        private final Map<GroupKey, long[]> cycles;
+
+        private Report(Tally t) {
+            cells = new HashMap<>();
+            t.cells.forEach((k, v) -> cells.put(k, v.clone()));
+            cycles = new HashMap<>();
+            t.cycles.forEach((k, v) -> cycles.put(k, v.clone()));
+        }
+
+        // {opened, closed} per bucket start date; null project/priority means "all"
+        public SortedMap<LocalDate, long[]> series(Granularity g, String project, BugPriority priority) {
+            SortedMap<LocalDate, long[]> out = new TreeMap<>();
+            cells.forEach((k, v) -> {
+                if (project != null && !project.equals(k.project())) return;
+                if (priority != null && priority != k.priority()) return;
+                LocalDate day = LocalDate.ofEpochDay(k.day());
+                LocalDate bucket = g == Granularity.WEEK ? day.minusDays(day.getDayOfWeek().getValue() - 1) : day;
+                long[] sum = out.computeIfAbsent(bucket, x -> new long[2]);
+                sum[0] += v[0];
+                sum[1] += v[1];
+            });
+            return out;
+        }
+
+        // Mean OPEN -> CLOSED time in days, or NaN when nothing matching has been closed
+        public double meanCycleDays(String project, BugPriority priority) {
+            long sum = 0, count = 0;
+            for (Map.Entry<GroupKey, long[]> e : cycles.entrySet()) {
+                if (project != null && !project.equals(e.getKey().project())) continue;
+                if (priority != null && priority != e.getKey().priority()) continue;
+                sum += e.getValue()[0];
+                count += e.getValue()[1];
+            }
+            return count == 0 ? Double.NaN : sum / (double) count / 86_400_000d;
+        }
+
+        public SortedSet<String> projects() {
+            SortedSet<String> out = new TreeSet<>();
+            for (CellKey k : cells.keySet()) out.add(k.project());
+            return out;
+        }
+    }
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "report-engine");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Worker-thread state
+    private final Tally master = new Tally();
+    private final Map<Integer, Long> countedClose = new HashMap<>(); // closedAt already counted, per bug id
+    private int maxCountedId = Integer.MIN_VALUE;
+
+    // EDT state
+    private int processed; // bugs[0, processed) have been handed to the worker
+    private final Map<Integer, Bug> dirty = new LinkedHashMap<>();
+
+    private volatile Report latest;
+
+    public Report getLatest() { return latest; }
+
+    @Override
+    public void statusChanged(Bug bug, BugStatus oldStatus) {
+        synchronized (dirty) {
+            dirty.put(bug.getId(), bug);
+        }
+    }
+
+    /*
+      Must be called on the EDT. Hands the new tail and the changed bugs to the worker and
+      delivers the updated report back on the EDT.
+    */
+    public void refresh(List<Bug> source, java.util.function.Consumer<Report> onDone) {
+        List<Bug> tail = new ArrayList<>(source.subList(processed, source.size()));
+        long[] tailClosed = closedTimes(tail);
+        processed = source.size();
+
+        List<Bug> changed;
+        synchronized (dirty) {
+            changed = new ArrayList<>(dirty.values());
+            dirty.clear();
+        }
+        long[] changedClosed = closedTimes(changed);
+
+        worker.submit(() -> {
+            Tally fresh = IntStream.range(0, tail.size()).parallel()
+                    .collect(Tally::new, (t, i) -> t.add(tail.get(i), tailClosed[i], 1), Tally::merge);
+            master.merge(fresh);
+            for (int i = 0; i < tail.size(); i++) {
+                Bug b = tail.get(i);
+                if (tailClosed[i] >= 0) countedClose.put(b.getId(), tailClosed[i]);
+                maxCountedId = Math.max(maxCountedId, b.getId());
+            }
+            for (int i = 0; i < changed.size(); i++) {
+                Bug b = changed.get(i);
+                if (b.getId() > maxCountedId) continue; // still in a tail that has not been aggregated
+                long before = countedClose.getOrDefault(b.getId(), -1L);
+                long now = changedClosed[i];
+                if (before == now) continue;
+                master.add(b, before, -1);
+                master.add(b, now, 1);
+                if (now >= 0) countedClose.put(b.getId(), now);
+                else countedClose.remove(b.getId());
+            }
+            Report r = new Report(master);
+            latest = r;
+            SwingUtilities.invokeLater(() -> onDone.accept(r));
+        });
+    }
+
+    private static long[] closedTimes(List<Bug> list) {
+        long[] out = new long[list.size()];
+        for (int i = 0; i < out.length; i++) {
+            Date c = list.get(i).getClosedDate();
+            out[i] = c == null ? -1 : c.getTime();
+        }
+        return out;
+    }
+}
+
+// ---------------------- DeveloperLoadBalancer ----------------------
+/*
+  Keeps every developer's open-bug load so the least-loaded one can be picked without scanning bugs.
+  - Load = sum over the developer's non-CLOSED bugs of priority weight x level weight
+  - Developers live in a TreeSet ordered by (load, username); each change is a remove + re-insert, O(log n)
+  - Loads are updated from BugEvents, so callers only need to fire the usual events; autoTriage
+    updates its own loads, so it spreads bugs whether or not the instance is registered
+*/
+class DeveloperLoadBalancer implements BugListener {
+    private static final int[] PRIORITY_WEIGHT = {1, 2, 4, 8}; // LOW, MEDIUM, HIGH, CRITICAL
+    private static final int[] LEVEL_WEIGHT = {1, 2, 3};       // MINOR, MAJOR, BLOCKER
+
+    private static final class Load {
+        final String developer;
+        long weight;
+
+        Load(String developer) { this.developer = developer; }
+    }
+
+    private final Map<String, Load> loads = new HashMap<>(); // every assignee seen, developer or not
+    private final Set<String> developers = new HashSet<>();
+    private final TreeSet<Load> heap = new TreeSet<>(
+            Comparator.comparingLong((Load l) -> l.weight).thenComparing(l -> l.developer));
+    private Bug triaging; // the bug autoTriage is firing for; its own assigneeChanged must not count it twice
+
+    public static int weightOf(Bug b) {
+        return PRIORITY_WEIGHT[b.getPriority().ordinal()] * LEVEL_WEIGHT[b.getLevel().ordinal()];
+    }
+
+    public static boolean isAssigned(String developer) {
+        return developer != null && !developer.isEmpty() && !"Unassigned".equals(developer);
+    }
+
+    // Full O(n) pass; only needed once at startup
+    public synchronized void rebuild(Collection<String> devs, List<Bug> bugs) {
+        loads.clear();
+        developers.clear();
+        heap.clear();
+        for (Bug b : bugs) {
+            if (b.getStatus() != BugStatus.CLOSED && isAssigned(b.getAssignedDeveloper()))
+                adjust(b.getAssignedDeveloper(), weightOf(b));
+        }
+        setDevelopers(devs);
+    }
+
+    // Call when users are added, removed or change role
+    public synchronized void setDevelopers(Collection<String> devs) {
+        Set<String> wanted = new HashSet<>(devs);
+        for (String d : new ArrayList<>(developers)) {
+            if (!wanted.contains(d)) {
+                developers.remove(d);
+                heap.remove(loads.get(d));
+            }
+        }
+        for (String d : wanted) {
+            if (developers.add(d)) heap.add(loads.computeIfAbsent(d, Load::new));
+        }
+    }
+
+    // Least-loaded developer, or null when there are none
+    public synchronized String suggest() {
+        return heap.isEmpty() ? null : heap.first().developer;
+    }
+
+    // Developers from least to most loaded, for the assignment pickers
+    public synchronized List<String> ranked() {
+        List<String> out = new ArrayList<>(heap.size());
+        for (Load l : heap) out.add(l.developer);
+        return out;
+    }
+
+    /*
+      Assigns every open, unassigned bug, heaviest first, each to the currently least-loaded developer.
+      Fires assigneeChanged for each bug; the caller saves and notifies. Returns the bugs that were assigned.
+    */
+    public synchronized List<Bug> autoTriage(List<Bug> bugs) {
+        List<Bug> pending = new ArrayList<>();
+        for (Bug b : bugs) {
+            if (b.getStatus() != BugStatus.CLOSED && !isAssigned(b.getAssignedDeveloper())) pending.add(b);
+        }
+        if (heap.isEmpty()) return Collections.emptyList();
+        pending.sort(Comparator.comparingInt(DeveloperLoadBalancer::weightOf).reversed());
+        for (Bug b : pending) {
+            String old = b.getAssignedDeveloper(), dev = suggest();
+            b.setAssignedDeveloper(dev);
+            adjust(dev, weightOf(b));
+            triaging = b;
+            try {
+                BugEvents.fireAssigneeChanged(b, old);
+            } finally {
+                triaging = null;
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public synchronized void bugAdded(Bug bug) {
+        if (bug.getStatus() != BugStatus.CLOSED && isAssigned(bug.getAssignedDeveloper()))
+            adjust(bug.getAssignedDeveloper(), weightOf(bug));
+    }
+
+    @Override
+    public synchronized void statusChanged(Bug bug, BugStatus oldStatus) {
+        if (!isAssigned(bug.getAssignedDeveloper())) return;
+        boolean wasOpen = oldStatus != BugStatus.CLOSED;
+        boolean isOpen = bug.getStatus() != BugStatus.CLOSED;
+        if (wasOpen && !isOpen) adjust(bug.getAssignedDeveloper(), -weightOf(bug));
+        else if (!wasOpen && isOpen) adjust(bug.getAssignedDeveloper(), weightOf(bug));
+    }
+
+    @Override
+    public synchronized void assigneeChanged(Bug bug, String oldDeveloper) {
+        if (bug == triaging || bug.getStatus() == BugStatus.CLOSED) return;
+        if (isAssigned(oldDeveloper)) adjust(oldDeveloper, -weightOf(bug));
+        if (isAssigned(bug.getAssignedDeveloper())) adjust(bug.getAssignedDeveloper(), weightOf(bug));
+    }
+
+    private void adjust(String developer, long delta) {
+        Load l = loads.computeIfAbsent(developer, Load::new);
+        boolean ranked = developers.contains(developer);
+        if (ranked) heap.remove(l);
+        l.weight += delta;
+        if (ranked) heap.add(l);
+    }
+}
+
+// ---------------------- TriageIndex ----------------------
+/*
+  Bugs in triage order, kept sorted as they change so no view ever sorts.
+  - Order: open (non-CLOSED) before CLOSED, then priority (CRITICAL first), level (BLOCKER first),
+    oldest report first, id
+  - One ConcurrentSkipListMap for all bugs, one per assignee and one per project; every event is a
+    remove + re-insert in the maps it touches, O(log n)
+  - The key is built from the status the bug had when it was inserted, so the event's old status is
+    what finds the entry again
+  - Pages are keyset-based: the next page starts after the Key of the last bug shown, so paging costs
+    O(log n + page) however deep into the order it goes. The cursor is that Key as it was when the page
+    was read, not the bug, so a bug that moves (e.g. closes) does not shift the pages around it
+*/
+class TriageIndex implements BugListener {
+    record Key(boolean closed, int priority, int level, long date, int id) implements Comparable<Key> {
+        static Key of(Bug b, BugStatus status) {
+            return new Key(status == BugStatus.CLOSED, b.getPriority().ordinal(), b.getLevel().ordinal(),
+                    b.getDate().getTime(), b.getId());
+        }
+
+        @Override
+        public int compareTo(Key o) {
+            if (closed != o.closed) return closed ? 1 : -1;
+            if (priority != o.priority) return Integer.compare(o.priority, priority);
+            if (level != o.level) return Integer.compare(o.level, level);
+            if (date != o.date) return Long.compare(date, o.date);
+            return Integer.compare(id, o.id);
+        }
+    }
+
+    // bugs in order, plus the keys they were found under (the cursors for the next/previous page); empty pages have null keys
+    record Page(List<Bug> bugs, Key first, Key last) {}
+
+    private final ConcurrentSkipListMap<Key, Bug> all = new ConcurrentSkipListMap<>();
+    private final Map<String, ConcurrentSkipListMap<Key, Bug>> byDeveloper = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListMap<Key, Bug>> byProject = new ConcurrentHashMap<>();
+
+    // O(n log n); only needed once at startup, before the index is registered with BugEvents
+    public void rebuild(List<Bug> bugs) {
+        all.clear();
+        byDeveloper.clear();
+        byProject.clear();
+        for (Bug b : bugs) bugAdded(b);
+    }
+
+    // The developer's most urgent open bug, or null if they have none
+    public Bug nextFor(String developer) {
+        return firstOpen(byDeveloper.get(developer == null ? "" : developer));
+    }
+
+    // The project's most urgent open bug, assigned or not
+    public Bug nextInProject(String project) {
+        return firstOpen(byProject.get(project == null ? "" : project));
+    }
+
+    // Up to limit bugs following after in triage order; after == null starts from the top
+    public Page page(Key after, int limit) {
+        return page(after == null ? all : all.tailMap(after, false), limit, false);
+    }
+
+    // Up to limit bugs directly preceding before, still in triage order
+    public Page pageBefore(Key before, int limit) {
+        return page(all.headMap(before, false).descendingMap(), limit, true);
+    }
+
+    // The key just before k in triage order, or null if k is first
+    public Key previous(Key k) {
+        return all.lowerKey(k);
+    }
+
+    // Everything assigned to the developer, open bugs first
+    public List<Bug> assignedTo(String developer) {
+        ConcurrentSkipListMap<Key, Bug> m = byDeveloper.get(developer == null ? "" : developer);
+        return m == null ? new ArrayList<>() : new ArrayList<>(m.values());
+    }
+
+    public Page inProject(String project, Key after, int limit) {
+        ConcurrentSkipListMap<Key, Bug> m = byProject.get(project == null ? "" : project);
+        if (m == null) return new Page(new ArrayList<>(), null, null);
+        return page(after == null ? m : m.tailMap(after, false), limit, false);
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    // Every project name seen, sorted
+    public List<String> projects() {
+        List<String> names = new ArrayList<>(byProject.keySet());
+        names.remove("");
+        Collections.sort(names);
+        return names;
+    }
+
+    private static Key key(Bug b) {
+        return Key.of(b, b.getStatus());
+    }
+
+    private static Bug firstOpen(ConcurrentSkipListMap<Key, Bug> m) {
+        if (m == null) return null;
+        Map.Entry<Key, Bug> e = m.firstEntry();
+        return e == null || e.getKey().closed() ? null : e.getValue();
+    }
+
+    private static Page page(Map<Key, Bug> m, int limit, boolean descending) {
+        List<Bug> out = new ArrayList<>(Math.min(limit, 1024));
+        Key first = null, last = null;
+        for (Map.Entry<Key, Bug> e : m.entrySet()) {
+            if (out.size() == limit) break;
+            if (first == null) first = e.getKey();
+            last = e.getKey();
+            out.add(e.getValue());
+        }
+        if (!descending) return new Page(out, first, last);
+        Collections.reverse(out);
+        return new Page(out, last, first);
+    }
+
+    private static ConcurrentSkipListMap<Key, Bug> scope(Map<String, ConcurrentSkipListMap<Key, Bug>> index, String name) {
+        return index.computeIfAbsent(name == null ? "" : name, k -> new ConcurrentSkipListMap<>());
+    }
+
+    @Override
+    public void bugAdded(Bug bug) {
+        Key k = key(bug);
+        all.put(k, bug);
+        scope(byProject, bug.getProjectName()).put(k, bug);
+        if (DeveloperLoadBalancer.isAssigned(bug.getAssignedDeveloper())) scope(byDeveloper, bug.getAssignedDeveloper()).put(k, bug);
+    }
+
+    @Override
+    public void statusChanged(Bug bug, BugStatus oldStatus) {
+        Key old = Key.of(bug, oldStatus), now = key(bug);
+        if (old.equals(now)) return;
+        move(all, old, now, bug);
+        move(scope(byProject, bug.getProjectName()), old, now, bug);
+        if (DeveloperLoadBalancer.isAssigned(bug.getAssignedDeveloper()))
+            move(scope(byDeveloper, bug.getAssignedDeveloper()), old, now, bug);
+    }
+
+    @Override
+    public void assigneeChanged(Bug bug, String oldDeveloper) {
+        Key k = key(bug);
+        if (DeveloperLoadBalancer.isAssigned(oldDeveloper)) {
+            ConcurrentSkipListMap<Key, Bug> m = byDeveloper.get(oldDeveloper);
+            if (m != null) m.remove(k);
+        }
+        if (DeveloperLoadBalancer.isAssigned(bug.getAssignedDeveloper())) scope(byDeveloper, bug.getAssignedDeveloper()).put(k, bug);
+    }
+
+    private static void move(ConcurrentSkipListMap<Key, Bug> m, Key old, Key now, Bug bug) {
+        m.remove(old);
+        m.put(now, bug);
+    }
+}
+
+// ---------------------- AttachmentStore ----------------------
+/*
+  Content-addressed screenshot store under ./attachments
+  - blobs/<first 2 hex>/<sha-256 hex>: identical files are stored once
+  - thumbs/<sha-256 hex>.png: thumbnails written by ThumbnailCache
+  - Bug.screenshotPath holds "sha256:<hex>" for ingested files; older bugs keep their absolute path
+*/
+class AttachmentStore {
+    private static final String STORE_DIR = "attachments";
+    static final String REF_PREFIX = "sha256:";
+
+    public static boolean isRef(String screenshotPath) {
+        return screenshotPath != null && screenshotPath.startsWith(REF_PREFIX);
+    }
+
+    // Copies the file into the store (hashing while copying) and returns its reference. Blocking I/O: keep off the EDT.
+    public static String ingest(File source) throws IOException {
+        Path tmpDir = Files.createDirectories(Paths.get(STORE_DIR, "tmp"));
+        Path tmp = Files.createTempFile(tmpDir, "ingest", ".part");
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        try {
+            try (InputStream in = new DigestInputStream(new FileInputStream(source), sha)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hex = HexFormat.of().formatHex(sha.digest());
+            Path blob = blobPath(hex);
+            if (Files.exists(blob)) {
+                Files.delete(tmp); // already stored
+            } else {
+                Files.createDirectories(blob.getParent());
+                Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return REF_PREFIX + hex;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    // File holding the image for a screenshotPath (reference or legacy absolute path), or null if there is none
+    public static File resolve(String screenshotPath) {
+        if (screenshotPath == null || screenshotPath.isEmpty()) return null;
+        File f = isRef(screenshotPath) ? blobPath(screenshotPath.substring(REF_PREFIX.length())).toFile() : new File(screenshotPath);
+        return f.isFile() ? f : null;
+    }
+
+    // Where the thumbnail for a reference lives; legacy paths have no stored thumbnail
+    static Path thumbPath(String screenshotPath) {
+        return isRef(screenshotPath) ? Paths.get(STORE_DIR, "thumbs", screenshotPath.substring(REF_PREFIX.length()) + ".png") : null;
+    }
+
+    private static Path blobPath(String hex) {
+        return Paths.get(STORE_DIR, "blobs", hex.substring(0, 2), hex);
+    }
+}
+
+// ---------------------- ThumbnailCache ----------------------
+/*
+  Thumbnails for the Screenshot column, loaded lazily on background threads.
+  - LRU over ImageIcons, bounded by decoded pixel bytes (w x h x 4)
+  - Missing thumbnails are generated from the blob and written to attachments/thumbs for next time
+  - get() never blocks: it returns null and calls onLoaded on the EDT once the icon is ready
+*/
+class ThumbnailCache {
+    static final int THUMB_HEIGHT = 22;
+    static final int THUMB_MAX_WIDTH = 64;
+    private static final long MAX_BYTES = 32L * 1024 * 1024;
+    static final ImageIcon MISSING = new ImageIcon(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+
+    private static final LinkedHashMap<String, ImageIcon> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private static final Set<String> inFlight = new HashSet<>();
+    private static long bytes;
+    private static final ExecutorService loader = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "thumbnail-loader");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    // Cached icon, MISSING if the image cannot be read, or null while it is loading
+    public static ImageIcon get(String screenshotPath, Runnable onLoaded) {
+        synchronized (cache) {
+            ImageIcon icon = cache.get(screenshotPath);
+            if (icon != null) return icon;
+            if (!inFlight.add(screenshotPath)) return null;
+        }
+        loader.submit(() -> {
+            ImageIcon icon = null;
+            try {
+                icon = load(screenshotPath);
+            } finally {
+                synchronized (cache) {
+                    inFlight.remove(screenshotPath);
+                    put(screenshotPath, icon == null ? MISSING : icon);
+                }
+            }
+            if (onLoaded != null) SwingUtilities.invokeLater(onLoaded);
+        });
+        return null;
+    }
+
+    // Background pre-generation right after ingest, so the first table paint finds a thumbnail on disk
+    public static void generate(String screenshotPath) {
+        get(screenshotPath, null);
+    }
+
+    private static void put(String key, ImageIcon icon) {
+        ImageIcon old = cache.put(key, icon);
+        if (old != null) bytes -= sizeOf(old);
+        bytes += sizeOf(icon);
+        Iterator<Map.Entry<String, ImageIcon>> it = cache.entrySet().iterator();
+        while (bytes > MAX_BYTES && it.hasNext()) {
+            Map.Entry<String, ImageIcon> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            bytes -= sizeOf(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(ImageIcon icon) {
+        return (long) icon.getIconWidth() * icon.getIconHeight() * 4;
+    }
+
+    private static ImageIcon load(String screenshotPath) {
+        try {
+            Path thumb = AttachmentStore.thumbPath(screenshotPath);
+            if (thumb != null && Files.exists(thumb)) {
+                BufferedImage img = ImageIO.read(thumb.toFile());
+                if (img != null) return new ImageIcon(img);
+            }
+            File source = AttachmentStore.resolve(screenshotPath);
+            if (source == null) return null;
+            BufferedImage full = ImageIO.read(source);
+            if (full == null) return null;
+            BufferedImage small = scale(full);
+            if (thumb != null) {
+                Files.createDirectories(thumb.getParent());
+                Path tmp = Files.createTempFile(thumb.getParent(), "thumb", ".part");
+                try {
+                    ImageIO.write(small, "png", tmp.toFile());
+                    Files.move(tmp, thumb, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(tmp);
+                    throw e;
+                }
+            }
+            return new ImageIcon(small);
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            // corrupt or hostile images can make ImageIO throw anything; show MISSING rather than retrying forever
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage full) {
+        double ratio = Math.min((double) THUMB_HEIGHT / full.getHeight(), (double) THUMB_MAX_WIDTH / full.getWidth());
+        int w = Math.max(1, (int) Math.round(full.getWidth() * ratio));
+        int h = Math.max(1, (int) Math.round(full.getHeight() * ratio));
+        BufferedImage small = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = small.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(full, 0, 0, w, h, null);
+        g.dispose();
+        return small;
+    }
+}
+
+// ---------------------- UserDirectory ----------------------
+/*
+  Indexed view of users.dat shared by the GUI and the CLI (no Swing here).
+  - username -> User hash index, and a precomputed sorted username list per role for the pickers
+  - passwords are salted PBKDF2 hashes; plaintext passwords from older users.dat files are hashed on first load
+  - successful logins are remembered in a bounded LRU for a short time, keyed by an HMAC of
+    (username, salt, password) under a random per-process key; nothing reversible is kept and
+    failures are never cached. Changing or removing a user drops its entry.
+*/
+class UserDirectory {
+    private static final int VERIFIED_CACHE_SIZE = 1024;
+    private static final long VERIFIED_TTL_MILLIS = 15 * 60 * 1000L;
+
+    private static List<User> users;
+    private static final Map<String, User> byName = new HashMap<>();
+    private static final Map<Role, TreeSet<String>> byRole = new EnumMap<>(Role.class);
+    private static final Map<Role, List<String>> roleLists = new EnumMap<>(Role.class); // immutable snapshots for the pickers
+
+    private record Verified(byte[] mac, long expiresAt) {}
+
+    private static final Map<String, Verified> verified = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Verified> eldest) {
+            return size() > VERIFIED_CACHE_SIZE;
+        }
+    };
+    private static final byte[] cacheKey = PasswordHasher.newSalt();
+
+    public static synchronized List<User> all() {
+        load();
+        return Collections.unmodifiableList(users);
+    }
+
+    public static synchronized User find(String username) {
+        load();
+        return byName.get(username);
+    }
+
+    // Sorted usernames with the given role; served from the role index, never by walking the user list
+    public static synchronized List<String> usernamesWithRole(Role role) {
+        load();
+        return roleLists.computeIfAbsent(role, r -> List.copyOf(byRole.get(r)));
+    }
+
+    // Returns false if the username is taken
+    public static synchronized boolean add(User user) {
+        load();
+        if (byName.containsKey(user.getUsername())) return false;
+        users.add(user);
+        index(user);
+        FileHandler.saveUsers(users);
+        return true;
+    }
+
+    public static synchronized void remove(String username) {
+        load();
+        User user = byName.remove(username);
+        if (user == null) return;
+        users.remove(user);
+        byRole.get(user.getRole()).remove(username);
+        roleLists.remove(user.getRole());
+        verified.remove(username);
+        FileHandler.saveUsers(users);
+    }
+
+    // newPassword may be null or empty to keep the current one
+    public static synchronized void update(User user, Role role, String newPassword) {
+        load();
+        byRole.get(user.getRole()).remove(user.getUsername());
+        roleLists.remove(user.getRole());
+        user.setRole(role);
+        if (newPassword != null && !newPassword.isEmpty()) user.setPassword(newPassword);
+        index(user);
+        verified.remove(user.getUsername());
+        FileHandler.saveUsers(users);
+    }
+
+    // The user if the password matches, otherwise null. The slow PBKDF2 check runs outside the lock.
+    public static User authenticate(String username, char[] password) {
+        User user = find(username);
+        if (user == null) return null;
+        byte[] mac = credentialMac(user, password);
+        long now = System.currentTimeMillis();
+        synchronized (UserDirectory.class) {
+            Verified v = verified.get(username);
+            if (v != null && v.expiresAt() > now && MessageDigest.isEqual(v.mac(), mac)) return user;
+        }
+        if (!user.checkPassword(password)) return null;
+        synchronized (UserDirectory.class) {
+            if (byName.get(username) == user) verified.put(username, new Verified(mac, now + VERIFIED_TTL_MILLIS));
+        }
+        return user;
+    }
+
+    private static byte[] credentialMac(User user, char[] password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKey, "HmacSHA256"));
+            mac.update(user.getUsername().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(user.getSalt());
+            byte[] pw = new String(password).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            try {
+                return mac.doFinal(pw);
+            } finally {
+                Arrays.fill(pw, (byte) 0);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static void load() {
+        if (users != null) return;
+        users = FileHandler.loadUsers();
+        List<User> legacy = new ArrayList<>();
+        for (User u : users) if (u.hasPlaintextPassword()) legacy.add(u);
+        if (!legacy.isEmpty()) {
+            legacy.parallelStream().forEach(User::migratePassword); // PBKDF2 is deliberately slow; use every core
+            FileHandler.saveUsers(users);
+        }
+        for (Role r : Role.values()) byRole.put(r, new TreeSet<>());
+        for (User u : users) index(u);
+    }
+
+    private static void index(User user) {
+        byName.put(user.getUsername(), user);
+        byRole.get(user.getRole()).add(user.getUsername());
+        roleLists.remove(user.getRole());
+    }
+}
+
+// ---------------------- BugRepository ----------------------
+/*
+  Shared bug operations for the GUI, the CLI, sync and the soak harness (no Swing here).
+  - every mutation fires the matching BugEvents notification and saves bugs.dat; emails come from
+    NotificationCenter, which listens to those events
+  - all methods are synchronized on the class, so worker threads can use it directly;
+    all() hands out the live list and is only for single-threaded callers (the EDT, CLI commands)
+  - with a save delay set, saves are coalesced: one background save at most every delay ms
+*/
+class BugRepository {
+    private static List<Bug> bugs;
+    private static final Map<Integer, Bug> byId = new HashMap<>();
+    private static long saveDelayMillis;
+    private static boolean saveScheduled;
+    private static java.util.concurrent.ScheduledExecutorService saver;
+    private static final Object flushLock = new Object();
+
+    // Loaded on first use, so commands that never touch bugs never read bugs.dat.
+    // Bugs are only added through report() and add(), which keep byId in step.
+    public static synchronized List<Bug> all() {
+        if (bugs == null) {
+            bugs = FileHandler.loadBugs();
+            for (Bug b : bugs) byId.put(b.getId(), b);
+        }
+        return bugs;
+    }
+
+    public static synchronized List<Bug> snapshot() {
+        return new ArrayList<>(all());
+    }
+
+    public static synchronized int size() {
+        return all().size();
+    }
+
+    // O(1) for hits and misses alike; sync catch-up looks up every incoming bug, most of them new
+    public static synchronized Bug find(int id) {
+        all();
+        return byId.get(id);
+    }
+
+    public static synchronized Bug report(String name, String type, BugPriority priority, BugLevel level, String projectName,
+                                          String assignedDeveloper, String screenshot, String reportedBy) {
+        List<Bug> list = all();
+        int newId = list.isEmpty() ? 1 : list.get(list.size() - 1).getId() + 1;
+        Bug b = new Bug(newId, name, type, priority, level, projectName, new Date(), BugStatus.OPEN,
+                assignedDeveloper, screenshot, reportedBy);
+        list.add(b);
+        byId.put(newId, b);
+        save();
+        BugEvents.fireBugAdded(b);
+        return b;
+    }
+
+    // Adds a bug created elsewhere (sync); the caller saves
+    static synchronized void add(Bug b) {
+        all().add(b);
+        byId.putIfAbsent(b.getId(), b);
+        BugEvents.fireBugAdded(b);
+    }
+
+    // No-op when the status is unchanged: no save, no event
+    public static synchronized void setStatus(Bug b, BugStatus status) {
+        BugStatus old = b.getStatus();
+        if (old == status) return;
+        b.setStatus(status);
+        save();
+        BugEvents.fireStatusChanged(b, old);
+    }
+
+    public static synchronized void assign(Bug b, String developer) {
+        String old = b.getAssignedDeveloper();
+        b.setAssignedDeveloper(developer);
+        save();
+        BugEvents.fireAssigneeChanged(b, old);
+    }
+
+    // 0 (the default) saves synchronously on every change
+    static synchronized void setSaveDelay(long millis) {
+        saveDelayMillis = millis;
+        if (millis > 0 && saver == null) {
+            saver = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "bug-saver");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // Back to synchronous saves; waits for a pending background save and writes anything still unsaved
+    static void drain() throws InterruptedException {
+        java.util.concurrent.ScheduledExecutorService s;
+        synchronized (BugRepository.class) {
+            s = saver;
+            saver = null;
+            saveDelayMillis = 0;
+        }
+        if (s == null) return;
+        s.shutdown(); // a scheduled flush still runs
+        s.awaitTermination(1, java.util.concurrent.TimeUnit.MINUTES);
+        flush();
+    }
+
+    public static synchronized void save() {
+        if (saveDelayMillis <= 0) {
+            FileHandler.saveBugs(all());
+        } else if (!saveScheduled) {
+            saveScheduled = true;
+            saver.schedule(BugRepository::flush, saveDelayMillis, java.util.concurrent.TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Writes a copy of the list outside the repository lock, so writers are only held up for the copy;
+    // flushLock keeps a scheduled flush and an explicit one from overtaking each other with an older copy
+    static void flush() {
+        synchronized (flushLock) {
+            List<Bug> copy;
+            synchronized (BugRepository.class) {
+                saveScheduled = false;
+                copy = new ArrayList<>(all());
+            }
+            FileHandler.saveBugs(copy);
+        }
+    }
+}
+
+// ---------------------- SyncServer ----------------------
+/*
+  Localhost change feed shared by several BugTrackingSystem instances.
+  - clients send "PUT <id> <token> <bug>" after each local change; the server numbers it and sends
+    "CHANGE <seq> <clientId>:<token> <bug>" to every subscriber, in order, the sender included (that
+    copy is its acknowledgement)
+  - on connect a client sends "HELLO <epoch> <lastSeq> <clientId>": if the server run (epoch) matches and the
+    change is still in the retained log it gets just the missed changes, otherwise a snapshot of the
+    latest version of every bug ("SNAPSHOT <epoch> <seq>", "BUG <bug>"..., "END")
+  - bugs travel as Base64 Java serialization; the server never decodes them, it only keys them by id
+  - a separate sender thread per client, so a slow client does not hold up the others
+*/
+class SyncServer implements Closeable {
+    static final int DEFAULT_PORT = 7420;
+    private static final int MAX_LOG = 100_000;
+
+    private final ServerSocket serverSocket;
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    private final Map<Integer, String> latest = new LinkedHashMap<>(); // bug id -> encoded bug
+    private final ArrayDeque<String> log = new ArrayDeque<>();          // "<origin> <bug>" for seq firstSeq..lastSeq
+    private long firstSeq = 1, lastSeq = 0;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    private final class Subscriber {
+        final Socket socket;
+        final java.util.concurrent.BlockingQueue<String> outbox = new java.util.concurrent.LinkedBlockingQueue<>();
+        volatile Thread sender; // interrupted by drop(), which is what ends send()
+
+        Subscriber(Socket socket) { this.socket = socket; }
+
+        void send() {
+            try (BufferedWriter w = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
+                while (true) {
+                    w.write(outbox.take());
+                    w.newLine();
+                    if (outbox.isEmpty()) w.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                drop(this);
+            }
+        }
+    }
+
+    // port 0 picks a free port; see getPort()
+    SyncServer(int port, List<Bug> initial) throws IOException {
+        for (Bug b : initial) latest.put(b.getId(), encode(b));
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    int getPort() { return serverSocket.getLocalPort(); }
+
+    void start() {
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket s = serverSocket.accept();
+                    s.setTcpNoDelay(true);
+                    Thread t = new Thread(() -> serve(s), "sync-client-" + s.getPort());
+                    t.setDaemon(true);
+                    t.start();
+                } catch (IOException e) {
+                    if (!serverSocket.isClosed()) e.printStackTrace();
+                }
+            }
+        }, "sync-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        List<Subscriber> all;
+        synchronized (this) {
+            all = new ArrayList<>(subscribers);
+        }
+        for (Subscriber s : all) drop(s);
+    }
+
+    private void serve(Socket socket) {
+        Subscriber sub = new Subscriber(socket);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
+            String[] hello = in.readLine().split(" ");
+            if (hello.length != 4 || !hello[0].equals("HELLO")) throw new IOException("expected HELLO");
+            String clientId = hello[3];
+            subscribe(sub, hello[1], Long.parseLong(hello[2]));
+            Thread sender = new Thread(sub::send, "sync-send-" + socket.getPort());
+            sender.setDaemon(true);
+            sub.sender = sender;
+            sender.start();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] put = line.split(" ", 4);
+                if (put.length != 4 || !put[0].equals("PUT")) throw new IOException("expected PUT");
+                publish(Integer.parseInt(put[1]), clientId + ":" + Long.parseLong(put[2]), put[3]);
+            }
+        } catch (IOException | RuntimeException e) {
+            // client went away or spoke nonsense; it will reconnect and catch up
+        } finally {
+            drop(sub);
+        }
+    }
+
+    private synchronized void subscribe(Subscriber sub, String clientEpoch, long clientSeq) {
+        if (epoch.equals(clientEpoch) && clientSeq >= firstSeq - 1 && clientSeq <= lastSeq) {
+            sub.outbox.add("CATCHUP " + epoch);
+            long seq = firstSeq;
+            for (String change : log) {
+                if (seq > clientSeq) sub.outbox.add("CHANGE " + seq + " " + change);
+                seq++;
+            }
+        } else {
+            sub.outbox.add("SNAPSHOT " + epoch + " " + lastSeq);
+            for (String bug : latest.values()) sub.outbox.add("BUG " + bug);
+            sub.outbox.add("END");
+        }
+        subscribers.add(sub);
+    }
+
+    private synchronized void publish(int id, String origin, String bug) {
+        latest.put(id, bug);
+        String change = origin + " " + bug;
+        log.addLast(change);
+        lastSeq++;
+        if (log.size() > MAX_LOG) {
+            log.removeFirst();
+            firstSeq++;
+        }
+        String line = "CHANGE " + lastSeq + " " + change;
+        for (Subscriber s : subscribers) s.outbox.add(line);
+    }
+
+    private void drop(Subscriber sub) {
+        synchronized (this) {
+            subscribers.remove(sub);
+        }
+        Thread sender = sub.sender;
+        if (sender != null && sender != Thread.currentThread()) sender.interrupt();
+        try {
+            sub.socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    static String encode(Bug b) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(b);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    // Only bug-shaped object graphs are accepted from the wire
+    static Bug decode(String s) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(s)))) {
+            ois.setObjectInputFilter(ObjectInputFilter.Config.createFilter(
+                    "maxdepth=5;maxrefs=100;Bug;BugStatus;BugPriority;BugLevel;java.lang.Enum;java.util.Date;!*"));
+            return (Bug) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException | IllegalArgumentException e) {
+            throw new IOException("bad bug payload", e);
+        }
+    }
+}
+
+// ---------------------- SyncClient ----------------------
+/*
+  Keeps the local BugRepository in step with a SyncServer.
+  - local BugEvents are sent as PUTs; while disconnected they queue up and are sent on reconnect
+  - until the server echoes a bug's latest PUT back, that bug's local state is newer than anything the
+    server sends, so incoming changes for it are skipped; on reconnect every unacknowledged bug is sent
+    again with its current state, so a PUT lost with the connection cannot leave it stuck
+  - remote changes are applied in batches on the caller's thread of choice (the EDT in the GUI), saved
+    once per batch, and fired as normal BugEvents so the balancer, reports and open dashboards follow
+  - the server epoch and last applied sequence number are kept in sync.dat, so a restarted client
+    catches up from where it stopped instead of taking a full snapshot
+  - bug ids are not coordinated: two clients reporting at the same moment can pick the same id
+*/
+class SyncClient implements BugListener {
+    private static final String STATE_FILE = "sync.dat";
+    private static final long RETRY_MILLIS = 2000;
+
+    private final String host;
+    private final int port;
+    private final java.util.function.Consumer<Runnable> applyOn;
+    private final String clientId = Long.toHexString(new SecureRandom().nextLong());
+    private final ArrayDeque<String> outbox = new ArrayDeque<>(); // guarded by this
+    private final Map<Integer, Long> unacked = new HashMap<>();   // bug id -> token of its latest PUT; guarded by this
+    private long lastToken;                                       // guarded by this
+    private BufferedWriter out; // guarded by this
+    private volatile String epoch = "-";
+    private volatile long lastSeq;
+    private volatile boolean running = true;
+    // set on the apply thread while remote changes are applied: they are not echoed back or notified again
+    private static final ThreadLocal<Boolean> applying = ThreadLocal.withInitial(() -> false);
+
+    SyncClient(String host, int port, java.util.function.Consumer<Runnable> applyOn) {
+        this.host = host;
+        this.port = port;
+        this.applyOn = applyOn;
+    }
+
+    // "host:port" or just "host"
+    static SyncClient forAddress(String address, java.util.function.Consumer<Runnable> applyOn) {
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) return new SyncClient(address, SyncServer.DEFAULT_PORT, applyOn);
+        return new SyncClient(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)), applyOn);
+    }
+
+    void start() {
+        loadState();
+        BugEvents.addListener(this);
+        Thread t = new Thread(this::run, "sync-client");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    void stop() {
+        running = false;
+        BugEvents.removeListener(this);
+        synchronized (this) {
+            try {
+                if (out != null) out.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override public void bugAdded(Bug bug) { publish(bug); }
+    @Override public void statusChanged(Bug bug, BugStatus oldStatus) { publish(bug); }
+    @Override public void assigneeChanged(Bug bug, String oldDeveloper) { publish(bug); }
+
+    static boolean applyingRemote() {
+        return applying.get();
+    }
+
+    private void publish(Bug bug) {
+        if (applying.get()) return;
+        String encoded = SyncServer.encode(bug);
+        synchronized (this) {
+            outbox.addLast(put(bug.getId(), encoded));
+            flushOutbox();
+        }
+    }
+
+    // caller holds the lock
+    private String put(int id, String encoded) {
+        unacked.put(id, ++lastToken);
+        return "PUT " + id + " " + lastToken + " " + encoded;
+    }
+
+    // Connects the writer, sending HELLO and then one PUT of the current state per unacknowledged bug in
+    // place of whatever was queued for them. Bugs are read without holding this lock, since BugEvents
+    // reach publish() with the repository lock held; a bug published meanwhile already has a newer PUT queued.
+    private void connect(BufferedWriter writer) throws IOException {
+        Map<Integer, Long> pending;
+        synchronized (this) {
+            outbox.clear();
+            pending = new HashMap<>(unacked);
+        }
+        Map<Integer, String> current = new HashMap<>();
+        for (Integer id : pending.keySet()) {
+            Bug b = BugRepository.find(id);
+            if (b != null) current.put(id, SyncServer.encode(b));
+        }
+        synchronized (this) {
+            List<String> resend = new ArrayList<>();
+            pending.forEach((id, token) -> {
+                if (!token.equals(unacked.get(id))) return;
+                if (current.containsKey(id)) resend.add(put(id, current.get(id)));
+                else unacked.remove(id);
+            });
+            for (int i = resend.size() - 1; i >= 0; i--) outbox.addFirst(resend.get(i));
+            writer.write("HELLO " + epoch + " " + lastSeq + " " + clientId);
+            writer.newLine();
+            out = writer;
+            flushOutbox();
+        }
+    }
+
+    // caller holds the lock; on failure the line stays queued for the next connection
+    private void flushOutbox() {
+        if (out == null) return;
+        try {
+            while (!outbox.isEmpty()) {
+                out.write(outbox.peekFirst());
+                out.newLine();
+                outbox.removeFirst();
+            }
+            out.flush();
+        } catch (IOException e) {
+            out = null;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try (Socket socket = new Socket(host, port);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), java.nio.charset.StandardCharsets.UTF_8))) {
+                socket.setTcpNoDelay(true);
+                connect(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), java.nio.charset.StandardCharsets.UTF_8)));
+                receive(in);
+            } catch (IOException e) {
+                // server down or connection lost; retry below
+            } finally {
+                synchronized (this) {
+                    out = null;
+                }
+            }
+            if (!running) return;
+            try {
+                Thread.sleep(RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void receive(BufferedReader in) throws IOException {
+        String batchEpoch = epoch;
+        long batchSeq = lastSeq;
+        List<Incoming> batch = new ArrayList<>();
+        boolean inSnapshot = false;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] parts = line.split(" ", 4);
+            switch (parts[0]) {
+                case "CATCHUP" -> batchEpoch = parts[1];
+                case "SNAPSHOT" -> {
+                    batchEpoch = parts[1];
+                    batchSeq = Long.parseLong(parts[2]);
+                    inSnapshot = true;
+                }
+                case "BUG" -> batch.add(new Incoming(null, 0, SyncServer.decode(parts[1])));
+                case "END" -> inSnapshot = false;
+                case "CHANGE" -> {
+                    batchSeq = Long.parseLong(parts[1]);
+                    int colon = parts[2].lastIndexOf(':');
+                    batch.add(new Incoming(parts[2].substring(0, colon), Long.parseLong(parts[2].substring(colon + 1)),
+                            SyncServer.decode(parts[3])));
+                }
+                default -> throw new IOException("unexpected line from server: " + parts[0]);
+            }
+            // hand over what has arrived so far once the socket goes quiet (never half a snapshot)
+            if (!inSnapshot && !in.ready()) {
+                deliver(batch, batchEpoch, batchSeq);
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    // origin is null for snapshot entries
+    private record Incoming(String origin, long token, Bug bug) {}
+
+    private void deliver(List<Incoming> batch, String batchEpoch, long batchSeq) {
+        applyOn.accept(() -> {
+            boolean changed = false;
+            applying.set(true);
+            try {
+                for (Incoming change : batch) {
+                    if (isNewerLocally(change)) continue;
+                    changed |= apply(change.bug());
+                }
+            } finally {
+                applying.set(false);
+            }
+            if (changed) BugRepository.save();
+            epoch = batchEpoch;
+            lastSeq = batchSeq;
+            saveState();
+        });
+    }
+
+    // Our own echoes acknowledge PUTs and are never applied; anything for a bug with a PUT still
+    // unacknowledged is older than the local state
+    private synchronized boolean isNewerLocally(Incoming change) {
+        int id = change.bug().getId();
+        if (clientId.equals(change.origin())) {
+            Long token = unacked.get(id);
+            if (token != null && token <= change.token()) unacked.remove(id);
+            return true;
+        }
+        return unacked.containsKey(id);
+    }
+
+    private boolean apply(Bug remote) {
+        Bug local = BugRepository.find(remote.getId());
+        if (local == null) {
+            BugRepository.add(remote);
+            return true;
+        }
+        BugStatus oldStatus = local.getStatus();
+        String oldDeveloper = local.getAssignedDeveloper();
+        if (oldStatus == remote.getStatus() && Objects.equals(oldDeveloper, remote.getAssignedDeveloper())) return false;
+        // one field per event: listeners read the other field from the bug and expect it unchanged
+        if (!Objects.equals(oldDeveloper, remote.getAssignedDeveloper())) {
+            local.setAssignedDeveloper(remote.getAssignedDeveloper());
+            BugEvents.fireAssigneeChanged(local, oldDeveloper);
+        }
+        if (oldStatus != remote.getStatus()) {
+            local.copyStatusFrom(remote);
+            BugEvents.fireStatusChanged(local, oldStatus);
+        }
+        return true;
+    }
+
+    private void loadState() {
+        try {
+            String[] s = Files.readString(Paths.get(STATE_FILE)).trim().split(" ");
+            epoch = s[0];
+            lastSeq = Long.parseLong(s[1]);
+        } catch (IOException | RuntimeException e) {
+            epoch = "-";
+            lastSeq = 0;
+        }
+    }
+
+    private void saveState() {
+        String state = epoch + " " + lastSeq;
+        try {
+            FileHandler.writeAtomically(Paths.get(STATE_FILE), o -> o.write(state.getBytes(java.nio.charset.StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
+
+// ---------------------- WorkloadGenerator ----------------------
+/*
+  Synthetic data for load testing, run with: BugCli generate --bugs N --users N [--seed S]
+  Overwrites bugs.dat and users.dat in the current directory, so run it in a scratch directory.
+  - users: one admin, ~5% project managers, ~35% developers, the rest testers; every password is "password",
+    hashed with few PBKDF2 iterations so generating thousands of accounts takes seconds, not hours
+  - projects: Zipf-distributed over PROJECTS names, so a few projects hold most of the bugs
+  - priority 30/40/22/8 % LOW..CRITICAL, level 60/32/8 % MINOR..BLOCKER
+  - report dates over the last two years, denser towards today; ids follow date order like real reports
+  - each bug closes after an exponential delay whose mean shrinks with priority; bugs whose delay has not
+    run out yet are still open or in progress, and ~10% of open ones are unassigned
+*/
+class WorkloadGenerator {
+    static final int PROJECTS = 50;
+    static final int SYNTHETIC_ITERATIONS = 1_000;
+    private static final int HISTORY_DAYS = 730;
+    private static final double[] PRIORITY_MIX = {0.30, 0.40, 0.22, 0.08};
+    private static final double[] LEVEL_MIX = {0.60, 0.32, 0.08};
+    private static final double[] MEAN_DAYS_TO_CLOSE = {90, 40, 12, 3}; // LOW, MEDIUM, HIGH, CRITICAL
+    private static final String[] TYPES = {"UI", "Crash", "Performance", "Security", "Data", "Build"};
+    private static final String[] AREAS = {"login", "search", "export", "checkout", "settings", "upload",
+            "dashboard", "reports", "notifications", "sync"};
+
+    static String project(int i) { return String.format("Project-%02d", i); }
+
+    static List<User> users(int count, long seed) {
+        Random rnd = new Random(seed);
+        int pms = Math.max(1, count * 5 / 100), devs = Math.max(1, count * 35 / 100);
+        int testers = Math.max(1, count - 1 - pms - devs);
+        List<User> users = new ArrayList<>(count);
+        users.add(new User("admin", "password", Role.ADMIN, SYNTHETIC_ITERATIONS));
+        for (int i = 1; i <= pms; i++) users.add(new User(String.format("pm%04d", i), "password", Role.PROJECT_MANAGER, SYNTHETIC_ITERATIONS));
+        for (int i = 1; i <= devs; i++) users.add(new User(String.format("dev%04d", i), "password", Role.DEVELOPER, SYNTHETIC_ITERATIONS));
+        for (int i = 1; i <= testers; i++) users.add(new User(String.format("tester%04d", i), "password", Role.TESTER, SYNTHETIC_ITERATIONS));
+        Collections.shuffle(users.subList(1, users.size()), rnd); // so users.dat is not grouped by role
+        return users;
+    }
+
+    static List<Bug> bugs(int count, List<String> developers, List<String> testers, long seed) {
+        Random rnd = new Random(seed);
+        long now = System.currentTimeMillis(), day = 86_400_000L;
+        long[] dates = new long[count];
+        for (int i = 0; i < count; i++)
+            dates[i] = now - (long) (Math.pow(rnd.nextDouble(), 1.5) * HISTORY_DAYS * day); // more recent reports
+        Arrays.sort(dates);
+        double[] zipf = zipfCdf(PROJECTS, 1.1);
+        List<Bug> bugs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BugPriority priority = BugPriority.values()[pick(rnd, PRIORITY_MIX)];
+            BugLevel level = BugLevel.values()[pick(rnd, LEVEL_MIX)];
+            long closeAt = dates[i] + (long) (-Math.log(1 - rnd.nextDouble()) * MEAN_DAYS_TO_CLOSE[priority.ordinal()] * day);
+            BugStatus status = closeAt <= now ? BugStatus.CLOSED : rnd.nextBoolean() ? BugStatus.IN_PROGRESS : BugStatus.OPEN;
+            String developer = status == BugStatus.OPEN && rnd.nextInt(10) == 0
+                    ? "Unassigned" : developers.get(rnd.nextInt(developers.size()));
+            String type = TYPES[rnd.nextInt(TYPES.length)];
+            Bug b = new Bug(i + 1, type + " issue in " + AREAS[rnd.nextInt(AREAS.length)] + " #" + (i + 1), type,
+                    priority, level, project(1 + zipfIndex(zipf, rnd.nextDouble())),
+                    new Date(dates[i]), status, developer, "", testers.get(rnd.nextInt(testers.size())));
+            if (status == BugStatus.CLOSED) b.setClosedDate(new Date(closeAt));
+            bugs.add(b);
+        }
+        return bugs;
+    }
+
+    // Index into weights, chosen with probability proportional to its weight (weights sum to 1)
+    private static int pick(Random rnd, double[] weights) {
+        double r = rnd.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private static int zipfIndex(double[] cdf, double r) {
+        int i = Arrays.binarySearch(cdf, r);
+        return Math.min(cdf.length - 1, i < 0 ? -i - 1 : i);
+    }
+
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) cdf[k - 1] = sum += 1 / Math.pow(k, s);
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    static void run(int bugCount, int userCount, long seed) {
+        long start = System.nanoTime();
+        List<User> users = users(userCount, seed);
+        List<String> devs = new ArrayList<>(), testers = new ArrayList<>();
+        for (User u : users) {
+            if (u.getRole() == Role.DEVELOPER) devs.add(u.getUsername());
+            else if (u.getRole() == Role.TESTER) testers.add(u.getUsername());
+        }
+        List<Bug> bugs = bugs(bugCount, devs, testers, seed + 1);
+        FileHandler.saveUsers(users);
+        FileHandler.saveBugs(bugs);
+        System.out.printf("generated %d users and %d bugs in %d ms%n", users.size(), bugs.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
+
+// ---------------------- SoakTest ----------------------
+/*
+  Multi-threaded load against BugRepository, run with:
+  BugCli soak [--threads N] [--seconds S] [--save-delay MS] [--report-every S]
+  Expects data from BugCli generate in the current directory; bugs.dat is rewritten as the run goes.
+  Each operation picks a random user and does what that role does in the dashboards:
+  - testers report new bugs (30%)
+  - project managers assign an unassigned open bug to the least loaded developer (20%)
+  - developers move their most urgent bug (TriageIndex) along OPEN -> IN_PROGRESS -> CLOSED (40%)
+  - everyone looks bugs up by id (10%)
+  Reports throughput and post-GC heap every interval, then per-operation p50/p99 latencies and heap growth.
+  Saves are coalesced (--save-delay, default 1000 ms): a full bugs.dat rewrite per change would measure
+  nothing but the disk once there are millions of bugs.
+*/
+class SoakTest {
+    private enum Op { REPORT, ASSIGN, UPDATE, READ }
+
+    private static final double[] OP_MIX = {0.30, 0.20, 0.40, 0.10};
+
+    // Log-linear latency buckets: 16 per power of two, so any percentile is within ~6% of the true value
+    private static final class Histogram {
+        private static final int SUB = 4;
+        final long[] counts = new long[64 << SUB];
+
+        void record(long nanos) {
+            counts[bucket(Math.max(1, nanos))]++;
+        }
+
+        private static int bucket(long v) {
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            if (exp < SUB) return (int) v;
+            return (exp - SUB + 1) << SUB | (int) (v >>> (exp - SUB)) & ((1 << SUB) - 1);
+        }
+
+        // Upper bound of the bucket
+        private static long value(int bucket) {
+            if (bucket < 1 << SUB) return bucket;
+            int exp = (bucket >>> SUB) + SUB - 1;
+            return ((long) ((1 << SUB) | bucket & ((1 << SUB) - 1)) + 1 << (exp - SUB)) - 1;
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        }
+
+        long total() {
+            long n = 0;
+            for (long c : counts) n += c;
+            return n;
+        }
+
+        long percentile(double p) {
+            long rank = (long) Math.ceil(total() * p), seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) return value(i);
+            }
+            return 0;
+        }
+    }
+
+    private final List<String> testers, developers, managers;
+    private final DeveloperLoadBalancer balancer = new DeveloperLoadBalancer();
+    private final TriageIndex triage = new TriageIndex();
+    private final java.util.concurrent.atomic.LongAdder ops = new java.util.concurrent.atomic.LongAdder();
+    private volatile boolean running = true;
+
+    private SoakTest() {
+        testers = UserDirectory.usernamesWithRole(Role.TESTER);
+        developers = UserDirectory.usernamesWithRole(Role.DEVELOPER);
+        managers = UserDirectory.usernamesWithRole(Role.PROJECT_MANAGER);
+        if (testers.isEmpty() || developers.isEmpty() || managers.isEmpty())
+            throw new IllegalArgumentException("soak needs testers, developers and project managers; run generate first");
+    }
+
+    static void run(int threads, int seconds, long saveDelay, int reportEvery) throws InterruptedException {
+        PrintStream console = EmailSimulator.out;
+        EmailSimulator.out = new PrintStream(OutputStream.nullOutputStream());
+        try {
+            new SoakTest().soak(threads, seconds, saveDelay, reportEvery);
+            NotificationCenter.flush();
+        } finally {
+            EmailSimulator.out = console;
+        }
+    }
+
+    private void soak(int threads, int seconds, long saveDelay, int reportEvery) throws InterruptedException {
+        long loadStart = System.nanoTime();
+        int initialBugs = BugRepository.size();
+        List<Bug> initial = BugRepository.snapshot();
+        balancer.rebuild(developers, initial);
+        BugEvents.addListener(balancer);
+        triage.rebuild(initial);
+        BugEvents.addListener(triage);
+        BugRepository.setSaveDelay(saveDelay);
+        NotificationCenter.start(reportEvery);
+        System.out.printf("loaded %d bugs, %d testers, %d developers, %d managers in %d ms%n", initialBugs,
+                testers.size(), developers.size(), managers.size(), (System.nanoTime() - loadStart) / 1_000_000);
+        long heapBefore = heapAfterGc();
+
+        Histogram[][] perThread = new Histogram[threads][Op.values().length];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Histogram[] hist = perThread[t];
+            for (int o = 0; o < hist.length; o++) hist[o] = new Histogram();
+            long seed = 31L * t + 17;
+            Thread w = new Thread(() -> work(new Random(seed), hist), "soak-" + t);
+            workers.add(w);
+            w.start();
+        }
+
+        long start = System.nanoTime(), end = start + seconds * 1_000_000_000L;
+        long lastOps = 0, lastAt = start;
+        while (System.nanoTime() < end) {
+            Thread.sleep(Math.min(reportEvery * 1000L, Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+            long now = System.nanoTime(), done = ops.sum();
+            System.out.printf("%4ds  %,10.0f ops/s  bugs %,d  heap after GC %,d MB%n", (now - start) / 1_000_000_000L,
+                    (done - lastOps) * 1e9 / (now - lastAt), BugRepository.size(), lastGcHeap() >> 20);
+            lastOps = done;
+            lastAt = now;
+        }
+        running = false;
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - start;
+        BugRepository.drain();
+        BugEvents.removeListener(balancer);
+        BugEvents.removeListener(triage);
+
+        System.out.printf("%n%-8s %12s %10s %10s%n", "op", "count", "p50 us", "p99 us");
+        Histogram all = new Histogram();
+        for (Op op : Op.values()) {
+            Histogram h = new Histogram();
+            for (Histogram[] hist : perThread) h.add(hist[op.ordinal()]);
+            all.add(h);
+            System.out.printf("%-8s %,12d %10.1f %10.1f%n", op.name().toLowerCase(), h.total(),
+                    h.percentile(0.50) / 1e3, h.percentile(0.99) / 1e3);
+        }
+        System.out.printf("%-8s %,12d %10.1f %10.1f%n", "all", all.total(), all.percentile(0.50) / 1e3, all.percentile(0.99) / 1e3);
+        long heapAfter = heapAfterGc();
+        System.out.printf("throughput %,.0f ops/s over %d threads; bugs %,d -> %,d; heap after GC %,d MB -> %,d MB (%+,d MB)%n",
+                all.total() * 1e9 / elapsed, threads, initialBugs, BugRepository.size(),
+                heapBefore >> 20, heapAfter >> 20, (heapAfter - heapBefore) >> 20);
+    }
+
+    private void work(Random rnd, Histogram[] hist) {
+        while (running) {
+            double r = rnd.nextDouble();
+            Op op = r < OP_MIX[0] ? Op.REPORT : r < OP_MIX[0] + OP_MIX[1] ? Op.ASSIGN
+                    : r < OP_MIX[0] + OP_MIX[1] + OP_MIX[2] ? Op.UPDATE : Op.READ;
+            long t0 = System.nanoTime();
+            switch (op) {
+                case REPORT -> {
+                    String tester = testers.get(rnd.nextInt(testers.size()));
+                    BugPriority priority = BugPriority.values()[rnd.nextInt(BugPriority.values().length)];
+                    BugLevel level = BugLevel.values()[rnd.nextInt(BugLevel.values().length)];
+                    BugRepository.report("Soak bug from " + tester, "Soak", priority, level,
+                            WorkloadGenerator.project(1 + rnd.nextInt(WorkloadGenerator.PROJECTS)), "Unassigned", "", tester);
+                }
+                case ASSIGN -> {
+                    Bug b = randomBug(rnd);
+                    if (b != null && b.getStatus() == BugStatus.OPEN && !DeveloperLoadBalancer.isAssigned(b.getAssignedDeveloper())) {
+                        String dev = balancer.suggest();
+                        if (dev != null) BugRepository.assign(b, dev);
+                    }
+                }
+                case UPDATE -> {
+                    Bug b = triage.nextFor(developers.get(rnd.nextInt(developers.size())));
+                    if (b != null) BugRepository.setStatus(b, b.getStatus() == BugStatus.OPEN ? BugStatus.IN_PROGRESS : BugStatus.CLOSED);
+                }
+                case READ -> randomBug(rnd);
+            }
+            hist[op.ordinal()].record(System.nanoTime() - t0);
+            ops.increment();
+        }
+    }
+
+    // Skewed towards recent ids, where most of the open bugs are
+    private static Bug randomBug(Random rnd) {
+        int size = BugRepository.size();
+        if (size == 0) return null;
+        int back = (int) Math.min(size - 1, (long) (-Math.log(1 - rnd.nextDouble()) * Math.max(1, size / 20)));
+        return BugRepository.find(size - back);
+    }
+
+    private static long heapAfterGc() {
+        System.gc();
+        return lastGcHeap();
+    }
+
+    // Heap in use right after the most recent collection, the part of the heap that is actually live
+    private static long lastGcHeap() {
+        long used = 0;
+        for (java.lang.management.MemoryPoolMXBean pool : java.lang.management.ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == java.lang.management.MemoryType.HEAP && pool.getCollectionUsage() != null)
+                used += pool.getCollectionUsage().getUsed();
+        }
+        return used;
+    }
+}
+
+// ---------------------- NotificationCenter ----------------------
+/*
+  Rule-based notifications, delivered as one digest per user
+  - built-in rules: reporters hear when their bugs close, developers when a bug is assigned to them
+  - subscriptions (subscriptions.dat) add per-user rules: a trigger plus optional project, status, priority
+    and minimum level, e.g. a PM watching for new BLOCKER bugs in a project
+  - subscriptions are compiled into a map keyed by (trigger, project, status, priority), null meaning "any",
+    so an event costs 8 map lookups no matter how many users have subscribed
+  - matches queue per user, one line per bug (a bug's latest event wins), and each digest interval every
+    user with pending lines gets a single EmailSimulator message; a 10k-bug bulk update is one message per person
+  - changes applied by SyncClient are skipped: the process that made the change already notified
+*/
+class NotificationCenter implements BugListener {
+    private static final int MAX_DIGEST_LINES = 100;
+
+    enum Trigger { REPORTED, STATUS_CHANGED, ASSIGNED }
+
+    // null project / status / priority / minLevel match any bug
+    record Subscription(String user, Trigger trigger, String project, BugStatus status, BugPriority priority,
+                        BugLevel minLevel) implements Serializable {
+        @Override
+        public String toString() {
+            return user + ": " + trigger.name().toLowerCase()
+                    + (project == null ? "" : " project=" + project)
+                    + (status == null ? "" : " status=" + status)
+                    + (priority == null ? "" : " priority=" + priority)
+                    + (minLevel == null ? "" : " min-level=" + minLevel);
+        }
+    }
+
+    private record RuleKey(Trigger trigger, String project, BugStatus status, BugPriority priority) {}
+
+    private static List<Subscription> subscriptions;
+    private static volatile Map<RuleKey, List<Subscription>> rules = Map.of();
+    private static final Map<String, LinkedHashMap<Integer, String>> pending = new HashMap<>(); // guarded by itself
+    private static java.util.concurrent.ScheduledExecutorService digests;
+
+    // Registers with BugEvents and sends digests every digestSeconds; pending ones also go out when the JVM exits
+    static synchronized void start(long digestSeconds) {
+        if (digests != null) return;
+        load();
+        BugEvents.addListener(new NotificationCenter());
+        digests = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "notification-digests");
+            t.setDaemon(true);
+            return t;
+        });
+        digests.scheduleWithFixedDelay(NotificationCenter::flush, digestSeconds, digestSeconds, java.util.concurrent.TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(NotificationCenter::flush, "notification-flush"));
+    }
+
+    static synchronized List<Subscription> subscriptions(String user) {
+        load();
+        List<Subscription> out = new ArrayList<>();
+        for (Subscription s : subscriptions) if (user == null || s.user().equals(user)) out.add(s);
+        return out;
+    }
+
+    static void subscribe(Subscription s) {
+        update(List.of(s), List.of());
+    }
+
+    // Several changes with one save, e.g. a PM's project picks
+    static synchronized void update(Collection<Subscription> add, Collection<Subscription> remove) {
+        load();
+        boolean changed = subscriptions.removeAll(remove);
+        for (Subscription s : add) {
+            if (!subscriptions.contains(s)) changed |= subscriptions.add(s);
+        }
+        if (changed) saveAndCompile();
+    }
+
+    static synchronized boolean unsubscribe(Subscription s) {
+        load();
+        if (!subscriptions.remove(s)) return false;
+        saveAndCompile();
+        return true;
+    }
+
+    private static void load() {
+        if (subscriptions != null) return;
+        subscriptions = FileHandler.loadSubscriptions();
+        compile();
+    }
+
+    private static void saveAndCompile() {
+        FileHandler.saveSubscriptions(subscriptions);
+        compile();
+    }
+
+    private static void compile() {
+        Map<RuleKey, List<Subscription>> index = new HashMap<>();
+        for (Subscription s : subscriptions)
+            index.computeIfAbsent(new RuleKey(s.trigger(), s.project(), s.status(), s.priority()), k -> new ArrayList<>()).add(s);
+        index.replaceAll((k, v) -> List.copyOf(v));
+        rules = index;
+    }
+
+    @Override
+    public void bugAdded(Bug bug) {
+        if (SyncClient.applyingRemote()) return;
+        match(bug, Trigger.REPORTED, "new " + bug.getLevel() + " bug");
+        if (DeveloperLoadBalancer.isAssigned(bug.getAssignedDeveloper())) queue(bug.getAssignedDeveloper(), bug, "assigned to you");
+    }
+
+    @Override
+    public void statusChanged(Bug bug, BugStatus oldStatus) {
+        if (SyncClient.applyingRemote() || oldStatus == bug.getStatus()) return;
+        match(bug, Trigger.STATUS_CHANGED, oldStatus + " -> " + bug.getStatus());
+        if (bug.getStatus() == BugStatus.CLOSED && oldStatus != BugStatus.CLOSED
+                && bug.getReportedBy() != null && !bug.getReportedBy().isEmpty())
+            queue(bug.getReportedBy(), bug, "closed");
+    }
+
+    @Override
+    public void assigneeChanged(Bug bug, String oldDeveloper) {
+        if (SyncClient.applyingRemote()) return;
+        match(bug, Trigger.ASSIGNED, "assigned to " + bug.getAssignedDeveloper());
+        if (DeveloperLoadBalancer.isAssigned(bug.getAssignedDeveloper())) queue(bug.getAssignedDeveloper(), bug, "assigned to you");
+    }
+
+    // Only the subscriptions filed under this bug's project, status and priority (or "any") are looked at
+    private static void match(Bug bug, Trigger trigger, String event) {
+        Map<RuleKey, List<Subscription>> index = rules;
+        if (index.isEmpty()) return;
+        for (String project : new String[] {bug.getProjectName(), null}) {
+            for (BugStatus status : new BugStatus[] {bug.getStatus(), null}) {
+                for (BugPriority priority : new BugPriority[] {bug.getPriority(), null}) {
+                    List<Subscription> matches = index.get(new RuleKey(trigger, project, status, priority));
+                    if (matches == null) continue;
+                    for (Subscription s : matches) {
+                        if (s.minLevel() == null || bug.getLevel().compareTo(s.minLevel()) >= 0) queue(s.user(), bug, event);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void queue(String user, Bug bug, String event) {
+        String line = "#" + bug.getId() + " " + bug.getName() + " [" + bug.getPriority() + "/" + bug.getLevel() + ", "
+                + bug.getProjectName() + "]: " + event;
+        synchronized (pending) {
+            LinkedHashMap<Integer, String> lines = pending.computeIfAbsent(user, k -> new LinkedHashMap<>());
+            lines.remove(bug.getId()); // re-added at the end, so lines stay in order of each bug's latest event
+            lines.put(bug.getId(), line);
+        }
+    }
+
+    // Sends every pending digest now
+    static void flush() {
+        Map<String, LinkedHashMap<Integer, String>> due;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            due = new TreeMap<>(pending);
+            pending.clear();
+        }
+        due.forEach((user, lines) -> {
+            StringBuilder body = new StringBuilder();
+            int shown = 0;
+            for (String line : lines.values()) {
+                if (shown++ == MAX_DIGEST_LINES) {
+                    body.append("\n... and ").append(lines.size() - MAX_DIGEST_LINES).append(" more");
+                    break;
+                }
+                body.append('\n').append(line);
+            }
+            String subject = lines.size() == 1 ? "Bug update" : lines.size() + " bug updates";
+            EmailSimulator.sendEmail(user, subject, body.toString());
+        });
+    }
+}
+
+// ---------------------- BugCli ----------------------
+/*
+  Headless command line: java -cp <classes> BugCli <command> ...
+  Never references Swing/AWT classes, so the JVM starts without loading the GUI stack.
+  Exit codes: 0 ok, 1 not found / bad input, 2 usage.
+*/
+class BugCli {
+    private static final String USAGE = String.join("\n",
+            "Usage: BugCli <command> [options]",
+            "  list [--status S] [--project P] [--assignee U] [--reporter U]",
+            "  show <id>",
+            "  next --developer U | --project P [--limit N]   (most urgent open bug(s) in triage order)",
+            "  report --name N --reporter U [--type T] [--priority P] [--level L] [--project P] [--assign U|auto] [--screenshot FILE]",
+            "  assign <id> <developer|auto>",
+            "  set-status <id> <OPEN|IN_PROGRESS|CLOSED>",
+            "  export [--format csv|tsv] [file]",
+            "  fault-test [trials] [seed]",
+            "  sync-server [port]",
+            "  sync-watch [host:port]",
+            "  generate --bugs N --users N [--seed S]",
+            "  soak [--threads N] [--seconds S] [--save-delay MS] [--report-every S]",
+            "  subscribe <user> --on reported|status_changed|assigned [--project P] [--status S] [--priority P] [--min-level L]",
+            "  subscriptions [user]",
+            "  unsubscribe <user> <n>   (n as numbered by subscriptions <user>)",
+            "  backup [--every MINUTES]",
+            "  backups",
+            "  restore <snapshot|latest> [file]   (no file: verify only)");
+
+    private static final long DIGEST_SECONDS = 60; // a one-shot command exits first; its digest goes out at shutdown
+
+    public static void main(String[] args) {
+        if (args.length == 0) usage();
+        try {
+            int code = run(args[0], Arrays.copyOfRange(args, 1, args.length));
+            System.out.flush();
+            if (code != 0) System.exit(code);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int run(String command, String[] args) throws IOException {
+        switch (command) {
+            case "list" -> list(options(args, 0));
+            case "show" -> show(bug(arg(args, 0)));
+            case "next" -> next(options(args, 0));
+            case "report" -> {
+                NotificationCenter.start(DIGEST_SECONDS);
+                report(options(args, 0));
+            }
+            case "assign" -> {
+                NotificationCenter.start(DIGEST_SECONDS);
+                assign(bug(arg(args, 0)), arg(args, 1));
+            }
+            case "set-status" -> {
+                NotificationCenter.start(DIGEST_SECONDS);
+                setStatus(bug(arg(args, 0)), arg(args, 1));
+            }
+            case "subscribe" -> subscribe(options(args, 0));
+            case "subscriptions" -> {
+                List<NotificationCenter.Subscription> subs = NotificationCenter.subscriptions(args.length > 0 ? args[0] : null);
+                for (int i = 0; i < subs.size(); i++) System.out.println((i + 1) + "\t" + subs.get(i));
+            }
+            case "unsubscribe" -> {
+                List<NotificationCenter.Subscription> subs = NotificationCenter.subscriptions(arg(args, 0));
+                int n = Integer.parseInt(arg(args, 1));
+                if (n < 1 || n > subs.size()) throw new IllegalArgumentException("no subscription " + n + " for " + args[0]);
+                NotificationCenter.unsubscribe(subs.get(n - 1));
+            }
+            case "export" -> export(args);
+            case "fault-test" -> {
+                int trials = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+                long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+                return PersistenceFaultHarness.run(trials, seed) == 0 ? 0 : 1;
+            }
+            case "sync-server" -> syncServer(args.length > 0 ? Integer.parseInt(args[0]) : SyncServer.DEFAULT_PORT);
+            case "sync-watch" -> syncWatch(args.length > 0 ? args[0] : "localhost");
+            case "backup" -> backup(options(args, 0));
+            case "backups" -> {
+                for (String name : BackupStore.list()) System.out.println(BackupStore.describe(name));
+            }
+            case "restore" -> {
+                Path target = args.length > 1 ? Paths.get(args[1]) : null;
+                int count = BackupStore.restore(arg(args, 0), target);
+                System.out.println(target == null ? "verified " + count + " bug(s)" : "restored " + count + " bug(s) to " + target);
+            }
+            case "generate" -> {
+                Map<String, String> opts = options(args, 0);
+                WorkloadGenerator.run(Integer.parseInt(required(opts, "bugs")), Integer.parseInt(required(opts, "users")),
+                        Long.parseLong(opts.getOrDefault("seed", "1")));
+            }
+            case "soak" -> {
+                Map<String, String> opts = options(args, 0);
+                try {
+                    SoakTest.run(Integer.parseInt(opts.getOrDefault("threads", "8")), Integer.parseInt(opts.getOrDefault("seconds", "60")),
+                            Long.parseLong(opts.getOrDefault("save-delay", "1000")), Integer.parseInt(opts.getOrDefault("report-every", "10")));
+                } catch (InterruptedException e) {
+                    return 1;
+                }
+            }
+            default -> usage();
+        }
+        return 0;
+    }
+
+    private static void list(Map<String, String> opts) {
+        String status = opts.get("status");
+        BugStatus st = status == null ? null : parse(BugStatus.class, status);
+        String project = opts.get("project"), assignee = opts.get("assignee"), reporter = opts.get("reporter");
+        StringBuilder out = new StringBuilder();
+        for (Bug b : BugRepository.all()) {
+            if (st != null && b.getStatus() != st) continue;
+            if (project != null && !project.equals(b.getProjectName())) continue;
+            if (assignee != null && !assignee.equals(b.getAssignedDeveloper())) continue;
+            if (reporter != null && !reporter.equals(b.getReportedBy())) continue;
+            row(out, b);
+            if (out.length() > 64 * 1024) {
+                System.out.print(out);
+                out.setLength(0);
+            }
+        }
+        System.out.print(out);
+    }
+
+    private static void row(StringBuilder out, Bug b) {
+        out.append(b.getId()).append('\t').append(b.getPriority()).append('\t').append(b.getLevel()).append('\t')
+                .append(b.getStatus()).append('\t').append(b.getProjectName()).append('\t')
+                .append(b.getAssignedDeveloper()).append('\t').append(b.getName()).append('\n');
+    }
+
+    // What to work on: the developer's or project's most urgent open bug, or the project's top N as list rows
+    private static void next(Map<String, String> opts) {
+        String developer = opts.get("developer"), project = opts.get("project");
+        if ((developer == null) == (project == null)) usage();
+        TriageIndex triage = new TriageIndex();
+        triage.rebuild(BugRepository.all());
+        if (developer != null) {
+            requireDeveloper(developer);
+            Bug b = triage.nextFor(developer);
+            if (b == null) throw new IllegalArgumentException("no open bugs assigned to " + developer);
+            show(b);
+        } else if (!opts.containsKey("limit")) {
+            Bug b = triage.nextInProject(project);
+            if (b == null) throw new IllegalArgumentException("no open bugs in " + project);
+            show(b);
+        } else {
+            int limit = Integer.parseInt(opts.get("limit"));
+            if (limit < 1) throw new IllegalArgumentException("--limit must be at least 1");
+            StringBuilder out = new StringBuilder();
+            for (Bug b : triage.inProject(project, null, limit).bugs()) {
+                if (b.getStatus() == BugStatus.CLOSED) break; // closed bugs sort after every open one
+                row(out, b);
+            }
+            if (out.length() == 0) throw new IllegalArgumentException("no open bugs in " + project);
+            System.out.print(out);
+        }
+    }
+
+    private static void show(Bug b) {
+        System.out.println("ID:          " + b.getId());
+        System.out.println("Name:        " + b.getName());
+        System.out.println("Type:        " + b.getType());
+        System.out.println("Priority:    " + b.getPriority());
+        System.out.println("Level:       " + b.getLevel());
+        System.out.println("Status:      " + b.getStatus());
+        System.out.println("Project:     " + b.getProjectName());
+        System.out.println("Assigned To: " + b.getAssignedDeveloper());
+        System.out.println("Reported By: " + b.getReportedBy());
+        System.out.println("Reported:    " + b.getDate());
+        if (b.getClosedDate() != null) System.out.println("Closed:      " + b.getClosedDate());
+        System.out.println("Screenshot:  " + b.getScreenshotPath());
+    }
+
+    private static void report(Map<String, String> opts) throws IOException {
+        String name = required(opts, "name");
+        String reporter = required(opts, "reporter");
+        if (!userExists(reporter)) throw new IllegalArgumentException("unknown user " + reporter);
+        BugPriority priority = parse(BugPriority.class, opts.getOrDefault("priority", "MEDIUM"));
+        BugLevel level = parse(BugLevel.class, opts.getOrDefault("level", "MINOR"));
+        String assigned = opts.getOrDefault("assign", "Unassigned");
+        if ("auto".equals(assigned)) assigned = suggestDeveloper();
+        else if (!"Unassigned".equals(assigned)) requireDeveloper(assigned);
+        String screenshot = opts.containsKey("screenshot") ? AttachmentStore.ingest(new File(opts.get("screenshot"))) : "";
+        Bug b = BugRepository.report(name, opts.getOrDefault("type", ""), priority, level,
+                opts.getOrDefault("project", ""), assigned, screenshot, reporter);
+        System.out.println(b.getId());
+    }
+
+    private static void assign(Bug b, String developer) {
+        if ("auto".equals(developer)) developer = suggestDeveloper();
+        else requireDeveloper(developer);
+        BugRepository.assign(b, developer);
+    }
+
+    private static void setStatus(Bug b, String status) {
+        BugRepository.setStatus(b, parse(BugStatus.class, status));
+    }
+
+    private static void export(String[] args) throws IOException {
+        Map<String, String> opts = options(args, 0);
+        String format = opts.getOrDefault("format", "csv");
+        if (!format.equals("csv") && !format.equals("tsv")) throw new IllegalArgumentException("unknown format " + format);
+        String file = opts.get("");
+        char sep = format.equals("csv") ? ',' : '\t';
+        try (Writer w = file == null ? new OutputStreamWriter(System.out) : new FileWriter(file)) {
+            BufferedWriter out = new BufferedWriter(w, 64 * 1024);
+            out.write(String.join(String.valueOf(sep), "id", "name", "type", "priority", "level", "status", "project",
+                    "assigned_to", "reported_by", "date", "closed_date", "screenshot"));
+            out.newLine();
+            for (Bug b : BugRepository.all()) {
+                Object[] row = {b.getId(), b.getName(), b.getType(), b.getPriority(), b.getLevel(), b.getStatus(),
+                        b.getProjectName(), b.getAssignedDeveloper(), b.getReportedBy(), b.getDate().getTime(),
+                        b.getClosedDate() == null ? "" : b.getClosedDate().getTime(), b.getScreenshotPath()};
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) out.write(sep);
+                    out.write(field(String.valueOf(row[i] == null ? "" : row[i]), sep));
+                }
+                out.newLine();
+            }
+            out.flush();
+        }
+    }
+
+    private static void subscribe(Map<String, String> opts) {
+        String user = required(opts, "");
+        if (!userExists(user)) throw new IllegalArgumentException("unknown user " + user);
+        NotificationCenter.Trigger trigger = parse(NotificationCenter.Trigger.class, required(opts, "on"));
+        String status = opts.get("status"), priority = opts.get("priority"), level = opts.get("min-level");
+        NotificationCenter.subscribe(new NotificationCenter.Subscription(user, trigger, opts.get("project"),
+                status == null ? null : parse(BugStatus.class, status),
+                priority == null ? null : parse(BugPriority.class, priority),
+                level == null ? null : parse(BugLevel.class, level)));
+    }
+
+    // One snapshot, or one every --every minutes until the process is killed
+    private static void backup(Map<String, String> opts) throws IOException {
+        long every = Long.parseLong(opts.getOrDefault("every", "0"));
+        while (true) {
+            BackupStore.Summary s = BackupStore.snapshot(Paths.get(FileHandler.BUGS_FILE));
+            System.out.printf("%s: %,d bugs, %d of %d blocks new, %,d bytes stored for a %,d byte file%n",
+                    s.name(), s.bugs(), s.newPieces(), s.pieces(), s.storedBytes(), s.fileBytes());
+            if (every <= 0) return;
+            try {
+                Thread.sleep(every * 60_000);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
 
-    public Bug(int id, String name, String type, BugPriority priority, BugLevel level,
-               String projectName, Date date, BugStatus status, String assignedDeveloper,
-               String screenshotPath, String reportedBy) {
-        this.id = id;
-        this.name = name;
-        this.type = type;
-        this.priority = priority;
-        this.level = level;
-        this.projectName = projectName;
-        this.date = date;
-        this.status = status;
-        this.assignedDeveloper = assignedDeveloper;
-        this.screenshotPath = screenshotPath;
-        this.reportedBy = reportedBy;
+    // Serves the change feed, seeded from the local bugs.dat, until the process is killed
+    private static void syncServer(int port) throws IOException {
+        SyncServer server = new SyncServer(port, BugRepository.all());
+        server.start();
+        System.out.println("sync server listening on localhost:" + server.getPort());
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                server.close();
+                return;
+            }
+        }
     }
 
-    // Getters / setters
-    public int getId() { return id; }
-    public String getName() { return name; }
-    public String getType() { return type; }
-    public BugPriority getPriority() { return priority; }
-    public BugLevel getLevel() { return level; }
-    public String getProjectName() { return projectName; }
-    public Date getDate() { return date; }
-    public BugStatus getStatus() { return status; }
-    public String getAssignedDeveloper() { return assignedDeveloper; }
-    public String getScreenshotPath() { return screenshotPath; }
-    public String getReportedBy() { return reportedBy; }
+    // Follows the feed into the local bugs.dat, printing each applied change
+    private static void syncWatch(String address) {
+        ExecutorService applier = Executors.newSingleThreadExecutor();
+        BugEvents.addListener(new BugListener() {
+            public void bugAdded(Bug bug) { System.out.println("added\t" + bug.getId() + "\t" + bug.getName()); }
+            public void statusChanged(Bug bug, BugStatus oldStatus) { System.out.println("status\t" + bug.getId() + "\t" + oldStatus + " -> " + bug.getStatus()); }
+            public void assigneeChanged(Bug bug, String oldDeveloper) { System.out.println("assignee\t" + bug.getId() + "\t" + oldDeveloper + " -> " + bug.getAssignedDeveloper()); }
+        });
+        SyncClient.forAddress(address, applier::execute).start();
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
 
-    public void setStatus(BugStatus status) { this.status = status; }
-    public void setAssignedDeveloper(String assignedDeveloper) { this.assignedDeveloper = assignedDeveloper; }
+    private static String field(String s, char sep) {
+        if (sep == '\t') return s.replace('\t', ' ').replace('\n', ' ');
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
 
-    // Convenience for table rows (admin/pm/tester)
-    public Object[] toTableRowForAdmin() {
-        return new Object[]{id, name, type, priority, status, projectName, assignedDeveloper, reportedBy};
+    // --- users (users.dat is loaded only by report / assign) ---
+
+    private static boolean userExists(String username) {
+        return UserDirectory.find(username) != null;
     }
 
-    public Object[] toTableRowForTester() {
-        return new Object[]{id, name, type, priority, status, projectName, assignedDeveloper};
+    private static void requireDeveloper(String username) {
+        User u = UserDirectory.find(username);
+        if (u == null || u.getRole() != Role.DEVELOPER) throw new IllegalArgumentException(username + " is not a developer");
     }
 
-    public Object[] toTableRowForDeveloper() {
-        return new Object[]{id, name, type, priority, status, projectName, reportedBy};
+    private static String suggestDeveloper() {
+        DeveloperLoadBalancer balancer = new DeveloperLoadBalancer();
+        balancer.rebuild(UserDirectory.usernamesWithRole(Role.DEVELOPER), BugRepository.all());
+        String dev = balancer.suggest();
+        if (dev == null) throw new IllegalArgumentException("no developers available");
+        return dev;
     }
-}
 
-// ---------------------- FileHandler ----------------------
-class FileHandler {
-    private static final String USERS_FILE = "users.dat";
-    private static final String BUGS_FILE = "bugs.dat";
+    // --- argument parsing ---
 
-    public static void saveUsers(List<User> users) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(USERS_FILE))) {
-            oos.writeObject(users);
-        } catch (IOException e) {
-            e.printStackTrace();
+    // --key value pairs; a single bare argument is stored under ""
+    private static Map<String, String> options(String[] args, int from) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+                opts.put(args[i].substring(2), args[++i]);
+            } else if (!opts.containsKey("")) {
+                opts.put("", args[i]);
+            } else {
+                throw new IllegalArgumentException("unexpected argument " + args[i]);
+            }
         }
+        return opts;
     }
 
-    public static List<User> loadUsers() {
-        List<User> users = new ArrayList<>();
-        File f = new File(USERS_FILE);
-        if (!f.exists()) return users;
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(USERS_FILE))) {
-            users = (List<User>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return users;
+    private static String required(Map<String, String> opts, String key) {
+        String v = opts.get(key);
+        if (v == null || v.isEmpty()) throw new IllegalArgumentException("--" + key + " is required");
+        return v;
     }
 
-    public static void saveBugs(List<Bug> bugs) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(BUGS_FILE))) {
-            oos.writeObject(bugs);
-        } catch (IOException e) {
-            e.printStackTrace();
+    private static String arg(String[] args, int i) {
+        if (i >= args.length) usage();
+        return args[i];
+    }
+
+    private static Bug bug(String id) {
+        Bug b;
+        try {
+            b = BugRepository.find(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad bug id " + id);
         }
+        if (b == null) throw new IllegalArgumentException("no bug with id " + id);
+        return b;
     }
 
-    public static List<Bug> loadBugs() {
-        List<Bug> bugs = new ArrayList<>();
-        File f = new File(BUGS_FILE);
-        if (!f.exists()) return bugs;
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(BUGS_FILE))) {
-            bugs = (List<Bug>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("bad " + type.getSimpleName() + " " + value + ", expected one of " + Arrays.toString(type.getEnumConstants()));
         }
-        return bugs;
     }
-}
 
-// ---------------------- EmailSimulator ----------------------
-class EmailSimulator {
-    public static void sendEmail(String to, String subject, String body) {
-        System.out.println("=== EMAIL NOTIFICATION ===");
-        System.out.println("To: " + to);
-        System.out.println("Subject: " + subject);
-        System.out.println("Body: " + body);
-        System.out.println("==========================");
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(2);
     }
 }
 
 // ---------------------- Main App ----------------------
 public class BugTrackingSystem {
-    static List<User> users;
     static List<Bug> bugs;
     static User currentUser;
+    static BugReportEngine reportEngine;
+    static DeveloperLoadBalancer loadBalancer;
+    static TriageIndex triageIndex;
 
     public static void main(String[] args) {
+        // Any arguments mean a CLI command; BugCli is the faster entry point since it skips loading this class
+        if (args.length > 0) {
+            BugCli.main(args);
+            return;
+        }
+
         // Set Nimbus L&F and fonts
         try {
             UIManager.setLookAndFeel("javax.swing.plaf.nimbus.NimbusLookAndFeel");
@@ -189,19 +3008,55 @@ public class BugTrackingSystem {
         } catch (Exception ignored) {
         }
 
-        users = FileHandler.loadUsers();
-        bugs = FileHandler.loadBugs();
+        bugs = BugRepository.all();
 
         // ensure default admin exists
-        boolean adminExists = users.stream().anyMatch(u -> u.getRole() == Role.ADMIN && u.getUsername().equals("admin"));
-        if (!adminExists) {
-            users.add(new User("admin", "admin123", Role.ADMIN));
-            FileHandler.saveUsers(users);
-        }
+        if (UserDirectory.find("admin") == null) UserDirectory.add(new User("admin", "admin123", Role.ADMIN));
+
+        reportEngine = new BugReportEngine();
+        BugEvents.addListener(reportEngine);
+        loadBalancer = new DeveloperLoadBalancer();
+        loadBalancer.rebuild(UserDirectory.usernamesWithRole(Role.DEVELOPER), bugs);
+        BugEvents.addListener(loadBalancer);
+        triageIndex = new TriageIndex();
+        triageIndex.rebuild(bugs);
+        BugEvents.addListener(triageIndex);
+        NotificationCenter.start(Long.getLong("bts.digestSeconds", 60));
+
+        // -Dbts.backup=minutes takes incremental snapshots in the background (see BugCli restore)
+        String backup = System.getProperty("bts.backup");
+        if (backup != null) BackupStore.schedule(Long.parseLong(backup));
+
+        // -Dbts.sync=host:port follows a SyncServer (see BugCli sync-server)
+        String sync = System.getProperty("bts.sync");
+        if (sync != null) SyncClient.forAddress(sync, SwingUtilities::invokeLater).start();
 
         SwingUtilities.invokeLater(BugTrackingSystem::createLoginGUI);
     }
 
+    // Re-runs refresh after bug changes (local or synced) while the window is open, once per burst of events
+    static void refreshOnBugChanges(Window window, Runnable refresh) {
+        java.util.concurrent.atomic.AtomicBoolean pending = new java.util.concurrent.atomic.AtomicBoolean();
+        Runnable schedule = () -> {
+            if (pending.compareAndSet(false, true)) SwingUtilities.invokeLater(() -> {
+                pending.set(false);
+                refresh.run();
+            });
+        };
+        BugListener listener = new BugListener() {
+            public void bugAdded(Bug bug) { schedule.run(); }
+            public void statusChanged(Bug bug, BugStatus oldStatus) { schedule.run(); }
+            public void assigneeChanged(Bug bug, String oldDeveloper) { schedule.run(); }
+        };
+        BugEvents.addListener(listener);
+        window.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                BugEvents.removeListener(listener);
+            }
+        });
+    }
+
     // ---------------------- Login GUI ----------------------
     private static void createLoginGUI() {
         JFrame frame = new JFrame("Bug Tracking System - Login");
@@ -336,12 +3191,11 @@ public class BugTrackingSystem {
         // Actions
         loginBtn.addActionListener(e -> {
             String username = userText.getText().trim();
-            String password = new String(passText.getPassword());
-            Optional<User> userOpt = users.stream()
-                    .filter(u -> u.getUsername().equals(username) && u.getPassword().equals(password))
-                    .findFirst();
-            if (userOpt.isPresent()) {
-                currentUser = userOpt.get();
+            char[] password = passText.getPassword();
+            User user = UserDirectory.authenticate(username, password);
+            Arrays.fill(password, '\0');
+            if (user != null) {
+                currentUser = user;
                 frame.dispose();
                 openDashboard();
             } else {
@@ -432,7 +3286,7 @@ public class BugTrackingSystem {
                     return;
                 }
                 String username = (String) userModel.getValueAt(r, 0);
-                User u = users.stream().filter(x -> x.getUsername().equals(username)).findFirst().orElse(null);
+                User u = UserDirectory.find(username);
                 if (u != null) new EditUserDialog(this, u).setVisible(true);
                 refreshUsers();
             });
@@ -450,8 +3304,8 @@ public class BugTrackingSystem {
                 }
                 int confirm = JOptionPane.showConfirmDialog(this, "Delete user " + username + "?", "Confirm", JOptionPane.YES_NO_OPTION);
                 if (confirm == JOptionPane.YES_OPTION) {
-                    users.removeIf(u -> u.getUsername().equals(username));
-                    FileHandler.saveUsers(users);
+                    UserDirectory.remove(username);
+                    loadBalancer.setDevelopers(UserDirectory.usernamesWithRole(Role.DEVELOPER));
                     refreshUsers();
                 }
             });
@@ -468,7 +3322,7 @@ public class BugTrackingSystem {
 
         private void refreshUsers() {
             userModel.setRowCount(0);
-            for (User u : users) userModel.addRow(new Object[]{u.getUsername(), u.getRole().name()});
+            for (User u : UserDirectory.all()) userModel.addRow(new Object[]{u.getUsername(), u.getRole().name()});
         }
 
         // Edit user dialog (inner)
@@ -485,8 +3339,9 @@ public class BugTrackingSystem {
                 JLabel userL = new JLabel("Username:");
                 JTextField userF = new JTextField(user.getUsername());
                 userF.setEditable(false);
-                JLabel passL = new JLabel("Password:");
-                JPasswordField passF = new JPasswordField(user.getPassword());
+                JLabel passL = new JLabel("New Password:");
+                JPasswordField passF = new JPasswordField();
+                passF.setToolTipText("Leave blank to keep the current password");
                 JLabel roleL = new JLabel("Role:");
                 JComboBox<Role> roleBox = new JComboBox<>(Role.values());
                 roleBox.setSelectedItem(user.getRole());
@@ -513,9 +3368,8 @@ public class BugTrackingSystem {
                 add(save, gbc);
 
                 save.addActionListener(ev -> {
-                    user.setPassword(new String(passF.getPassword()));
-                    user.setRole((Role) roleBox.getSelectedItem());
-                    FileHandler.saveUsers(users);
+                    UserDirectory.update(user, (Role) roleBox.getSelectedItem(), new String(passF.getPassword()));
+                    loadBalancer.setDevelopers(UserDirectory.usernamesWithRole(Role.DEVELOPER));
                     dispose();
                 });
             }
@@ -527,15 +3381,12 @@ public class BugTrackingSystem {
                 super(parent, "All Bugs", true);
                 setSize(900, 420);
                 setLocationRelativeTo(parent);
-                String[] cols = {"ID", "Name", "Type", "Priority", "Status", "Project", "Assigned To", "Reported By"};
-                DefaultTableModel model = new DefaultTableModel(cols, 0) {
-                    public boolean isCellEditable(int r, int c) {
-                        return false;
-                    }
-                };
+                BugTableModel model = new BugTableModel(BugColumn.ID, BugColumn.NAME, BugColumn.TYPE, BugColumn.PRIORITY,
+                        BugColumn.STATUS, BugColumn.PROJECT, BugColumn.ASSIGNED_TO, BugColumn.REPORTED_BY, BugColumn.SCREENSHOT);
                 JTable table = new JTable(model);
                 table.setRowHeight(24);
-                for (Bug b : bugs) model.addRow(b.toTableRowForAdmin());
+                model.installRenderers(table);
+                model.setRows(bugs);
                 add(new JScrollPane(table), BorderLayout.CENTER);
 
                 JPanel p = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
@@ -549,7 +3400,7 @@ public class BugTrackingSystem {
 
     // ---------------------- Tester Dashboard ----------------------
     static class TesterDashboard extends JFrame {
-        DefaultTableModel model;
+        BugTableModel model;
         JTable table;
 
         public TesterDashboard() {
@@ -566,15 +3417,13 @@ public class BugTrackingSystem {
             title.setFont(new Font("Segoe UI", Font.BOLD, 18));
             add(title, BorderLayout.NORTH);
 
-            String[] cols = {"ID", "Name", "Type", "Priority", "Status", "Project", "Assigned To"};
-            model = new DefaultTableModel(cols, 0) {
-                public boolean isCellEditable(int r, int c) {
-                    return false;
-                }
-            };
+            model = new BugTableModel(BugColumn.ID, BugColumn.NAME, BugColumn.TYPE, BugColumn.PRIORITY,
+                    BugColumn.STATUS, BugColumn.PROJECT, BugColumn.ASSIGNED_TO, BugColumn.SCREENSHOT);
             table = new JTable(model);
             table.setRowHeight(24);
+            model.installRenderers(table);
             refreshTable();
+            refreshOnBugChanges(this, this::refreshTable);
 
             JScrollPane sp = new JScrollPane(table);
             sp.setBorder(BorderFactory.createTitledBorder("My Reported Bugs"));
@@ -605,16 +3454,17 @@ public class BugTrackingSystem {
         }
 
         private void refreshTable() {
-            model.setRowCount(0);
+            List<Bug> mine = new ArrayList<>();
             for (Bug b : bugs) {
-                if (b.getReportedBy().equals(currentUser.getUsername())) model.addRow(b.toTableRowForTester());
+                if (b.getReportedBy().equals(currentUser.getUsername())) mine.add(b);
             }
+            model.setRows(mine);
         }
     }
 
     // ---------------------- Developer Dashboard ----------------------
     static class DeveloperDashboard extends JFrame {
-        DefaultTableModel model;
+        BugTableModel model;
         JTable table;
 
         public DeveloperDashboard() {
@@ -631,18 +3481,16 @@ public class BugTrackingSystem {
             title.setFont(new Font("Segoe UI", Font.BOLD, 18));
             add(title, BorderLayout.NORTH);
 
-            String[] cols = {"ID", "Name", "Type", "Priority", "Status", "Project", "Reported By"};
-            model = new DefaultTableModel(cols, 0) {
-                public boolean isCellEditable(int r, int c) {
-                    return false;
-                }
-            };
+            model = new BugTableModel(BugColumn.ID, BugColumn.NAME, BugColumn.TYPE, BugColumn.PRIORITY,
+                    BugColumn.STATUS, BugColumn.PROJECT, BugColumn.REPORTED_BY, BugColumn.SCREENSHOT);
             table = new JTable(model);
             table.setRowHeight(24);
+            model.installRenderers(table);
             refreshTable();
+            refreshOnBugChanges(this, this::refreshTable);
 
             JScrollPane sp = new JScrollPane(table);
-            sp.setBorder(BorderFactory.createTitledBorder("Assigned Bugs"));
+            sp.setBorder(BorderFactory.createTitledBorder("Assigned Bugs (most urgent first)"));
             add(sp, BorderLayout.CENTER);
 
             JPanel bottom = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 10));
@@ -660,15 +3508,12 @@ public class BugTrackingSystem {
                     JOptionPane.showMessageDialog(this, "Select a bug to update");
                     return;
                 }
-                int bugId = (Integer) model.getValueAt(r, 0);
-                Bug b = bugs.stream().filter(x -> x.getId() == bugId).findFirst().orElse(null);
-                if (b == null) return;
+                Bug b = model.bugAt(r);
                 BugStatus[] statuses = BugStatus.values();
                 BugStatus chosen = (BugStatus) JOptionPane.showInputDialog(this, "Select status",
                         "Update Status", JOptionPane.QUESTION_MESSAGE, null, statuses, b.getStatus());
                 if (chosen != null) {
-                    b.setStatus(chosen);
-                    FileHandler.saveBugs(bugs);
+                    BugRepository.setStatus(b, chosen);
                     refreshTable();
                 }
             });
@@ -684,18 +3529,23 @@ public class BugTrackingSystem {
         }
 
         private void refreshTable() {
-            model.setRowCount(0);
-            for (Bug b : bugs) {
-                if (currentUser.getUsername().equals(b.getAssignedDeveloper()))
-                    model.addRow(b.toTableRowForDeveloper());
-            }
+            model.setRows(triageIndex.assignedTo(currentUser.getUsername()));
         }
     }
 
     // ---------------------- Project Manager Dashboard ----------------------
     static class ProjectManagerDashboard extends JFrame {
-        DefaultTableModel model;
+        private static final int PAGE_SIZE = 500;
+
+        BugTableModel model;
         JTable table;
+        // keyset paging over triageIndex: the page starts after pageAfter (null = top)
+        private TriageIndex.Key pageAfter;
+        private int pageNumber = 1;
+        private TriageIndex.Page page = new TriageIndex.Page(Collections.emptyList(), null, null);
+        private final JLabel pageLabel = new JLabel();
+        private final JButton prevPage = new JButton("< Prev");
+        private final JButton nextPage = new JButton("Next >");
 
         public ProjectManagerDashboard() {
             super("Project Manager Dashboard - " + currentUser.getUsername());
@@ -711,25 +3561,52 @@ public class BugTrackingSystem {
             title.setFont(new Font("Segoe UI", Font.BOLD, 18));
             add(title, BorderLayout.NORTH);
 
-            String[] cols = {"ID", "Name", "Type", "Priority", "Status", "Project", "Assigned To", "Reported By"};
-            model = new DefaultTableModel(cols, 0) {
-                public boolean isCellEditable(int r, int c) {
-                    return false;
-                }
-            };
+            model = new BugTableModel(BugColumn.ID, BugColumn.NAME, BugColumn.TYPE, BugColumn.PRIORITY,
+                    BugColumn.STATUS, BugColumn.PROJECT, BugColumn.ASSIGNED_TO, BugColumn.REPORTED_BY, BugColumn.SCREENSHOT);
             table = new JTable(model);
             table.setRowHeight(24);
+            model.installRenderers(table);
             refreshTable();
+            refreshOnBugChanges(this, this::refreshTable);
 
             JScrollPane sp = new JScrollPane(table);
-            sp.setBorder(BorderFactory.createTitledBorder("All Bugs"));
-            add(sp, BorderLayout.CENTER);
+            sp.setBorder(BorderFactory.createTitledBorder("All Bugs (most urgent first)"));
+            JPanel pager = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+            pager.add(prevPage);
+            pager.add(pageLabel);
+            pager.add(nextPage);
+            JPanel center = new JPanel(new BorderLayout());
+            center.add(sp, BorderLayout.CENTER);
+            center.add(pager, BorderLayout.SOUTH);
+            add(center, BorderLayout.CENTER);
+
+            prevPage.addActionListener(e -> {
+                if (page.first() != null) {
+                    TriageIndex.Page before = triageIndex.pageBefore(page.first(), PAGE_SIZE);
+                    pageAfter = before.first() == null ? null : triageIndex.previous(before.first());
+                } else {
+                    pageAfter = null;
+                }
+                pageNumber = pageAfter == null ? 1 : pageNumber - 1;
+                refreshTable();
+            });
+            nextPage.addActionListener(e -> {
+                pageAfter = page.last();
+                pageNumber++;
+                refreshTable();
+            });
 
             JPanel bottom = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 10));
             JButton assign = new JButton("Assign Developer");
+            JButton autoTriage = new JButton("Auto-Triage");
+            JButton reports = new JButton("Reports");
+            JButton alerts = new JButton("Alerts");
             JButton refresh = new JButton("Refresh");
             JButton logout = new JButton("Logout");
             bottom.add(assign);
+            bottom.add(autoTriage);
+            bottom.add(reports);
+            bottom.add(alerts);
             bottom.add(refresh);
             bottom.add(logout);
             add(bottom, BorderLayout.SOUTH);
@@ -740,26 +3617,43 @@ public class BugTrackingSystem {
                     JOptionPane.showMessageDialog(this, "Select a bug to assign");
                     return;
                 }
-                int bugId = (Integer) model.getValueAt(r, 0);
-                Bug b = bugs.stream().filter(x -> x.getId() == bugId).findFirst().orElse(null);
-                if (b == null) return;
+                Bug b = model.bugAt(r);
 
-                // prepare developer list
-                List<String> devs = new ArrayList<>();
-                for (User u : users) if (u.getRole() == Role.DEVELOPER) devs.add(u.getUsername());
+                // developers ordered least loaded first, so the default is the suggested one
+                List<String> devs = loadBalancer.ranked();
                 if (devs.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "No developers available");
                     return;
                 }
                 String dev = (String) JOptionPane.showInputDialog(this, "Choose developer", "Assign", JOptionPane.QUESTION_MESSAGE, null, devs.toArray(), devs.get(0));
                 if (dev != null) {
-                    b.setAssignedDeveloper(dev);
-                    FileHandler.saveBugs(bugs);
+                    BugRepository.assign(b, dev);
                     refreshTable();
-                    EmailSimulator.sendEmail(dev, "New Bug Assigned", "You were assigned bug: " + b.getName());
                 }
             });
 
+            autoTriage.addActionListener(e -> {
+                if (loadBalancer.suggest() == null) {
+                    JOptionPane.showMessageDialog(this, "No developers available");
+                    return;
+                }
+                int confirm = JOptionPane.showConfirmDialog(this, "Assign all unassigned open bugs to the least-loaded developers?", "Auto-Triage", JOptionPane.YES_NO_OPTION);
+                if (confirm != JOptionPane.YES_OPTION) return;
+                List<Bug> assigned = loadBalancer.autoTriage(bugs);
+                if (assigned.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "No unassigned bugs");
+                    return;
+                }
+                BugRepository.save();
+                refreshTable();
+                // developers hear about these in their next NotificationCenter digest, one message each
+                JOptionPane.showMessageDialog(this, assigned.size() + " bug(s) assigned");
+            });
+
+            reports.addActionListener(e -> new ReportsDialog(this).setVisible(true));
+
+            alerts.addActionListener(e -> editBlockerAlerts());
+
             refresh.addActionListener(e -> refreshTable());
 
             logout.addActionListener(e -> {
@@ -771,8 +3665,496 @@ public class BugTrackingSystem {
         }
 
         private void refreshTable() {
-            model.setRowCount(0);
-            for (Bug b : bugs) model.addRow(b.toTableRowForAdmin());
+            page = triageIndex.page(pageAfter, PAGE_SIZE);
+            if (page.bugs().isEmpty() && pageAfter != null) { // everything after the cursor is gone; back to the top
+                pageAfter = null;
+                pageNumber = 1;
+                page = triageIndex.page(null, PAGE_SIZE);
+            }
+            model.setRows(page.bugs());
+            pageLabel.setText(String.format("Page %d - %,d bugs", pageNumber, triageIndex.size()));
+            prevPage.setEnabled(pageAfter != null);
+            nextPage.setEnabled(page.bugs().size() == PAGE_SIZE && !triageIndex.page(page.last(), 1).bugs().isEmpty());
+        }
+
+        // Projects this PM hears about when a BLOCKER bug is reported (NotificationCenter subscriptions)
+        private void editBlockerAlerts() {
+            String me = currentUser.getUsername();
+            List<String> projects = triageIndex.projects();
+            if (projects.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No projects yet");
+                return;
+            }
+            JList<String> list = new JList<>(projects.toArray(new String[0]));
+            list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+            list.setVisibleRowCount(12);
+            for (NotificationCenter.Subscription s : NotificationCenter.subscriptions(me)) {
+                if (s.equals(blockerAlert(me, s.project()))) {
+                    int i = projects.indexOf(s.project());
+                    if (i >= 0) list.addSelectionInterval(i, i);
+                }
+            }
+            int ok = JOptionPane.showConfirmDialog(this, new JScrollPane(list), "Alert me about new BLOCKER bugs in",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (ok != JOptionPane.OK_OPTION) return;
+            Set<String> chosen = new HashSet<>(list.getSelectedValuesList());
+            List<NotificationCenter.Subscription> add = new ArrayList<>(), remove = new ArrayList<>();
+            for (String p : projects) (chosen.contains(p) ? add : remove).add(blockerAlert(me, p));
+            NotificationCenter.update(add, remove);
+        }
+
+        private static NotificationCenter.Subscription blockerAlert(String user, String project) {
+            return new NotificationCenter.Subscription(user, NotificationCenter.Trigger.REPORTED, project, null, null, BugLevel.BLOCKER);
+        }
+
+        // Trend / cycle-time reports; numbers come from the background reportEngine
+        class ReportsDialog extends JDialog {
+            private final JComboBox<BugReportEngine.Granularity> granularityBox = new JComboBox<>(BugReportEngine.Granularity.values());
+            private final JComboBox<String> projectBox = new JComboBox<>(new String[]{"All projects"});
+            private final JComboBox<Object> priorityBox = new JComboBox<>();
+            private final JLabel cycleLabel = new JLabel("Computing...");
+            private final TrendChart chart = new TrendChart();
+            private BugReportEngine.Report report;
+
+            public ReportsDialog(JFrame parent) {
+                super(parent, "Bug Reports", true);
+                setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+                setSize(860, 480);
+                setLocationRelativeTo(parent);
+                setLayout(new BorderLayout(8, 8));
+
+                priorityBox.addItem("All priorities");
+                for (BugPriority p : BugPriority.values()) priorityBox.addItem(p);
+
+                JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 8));
+                filters.add(new JLabel("Group by:"));
+                filters.add(granularityBox);
+                filters.add(new JLabel("Project:"));
+                filters.add(projectBox);
+                filters.add(new JLabel("Priority:"));
+                filters.add(priorityBox);
+                add(filters, BorderLayout.NORTH);
+
+                chart.setBorder(BorderFactory.createTitledBorder("Opened vs Closed"));
+                add(chart, BorderLayout.CENTER);
+
+                JPanel p = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+                JButton close = new JButton("Close");
+                cycleLabel.setFont(new Font("Segoe UI", Font.BOLD, 13));
+                p.add(cycleLabel);
+                p.add(close);
+                add(p, BorderLayout.SOUTH);
+
+                granularityBox.addActionListener(e -> render());
+                projectBox.addActionListener(e -> render());
+                priorityBox.addActionListener(e -> render());
+                close.addActionListener(e -> dispose());
+
+                // show the cached report straight away, then catch up with whatever changed since
+                report = reportEngine.getLatest();
+                if (report != null) showReport(report);
+                refreshOnBugChanges(this, this::requestReport);
+                requestReport();
+            }
+
+            private void requestReport() {
+                reportEngine.refresh(bugs, this::showReport);
+            }
+
+            private void showReport(BugReportEngine.Report r) {
+                report = r;
+                Object selected = projectBox.getSelectedItem();
+                for (String project : r.projects()) {
+                    if (((DefaultComboBoxModel<String>) projectBox.getModel()).getIndexOf(project) < 0) projectBox.addItem(project);
+                }
+                projectBox.setSelectedItem(selected);
+                render();
+            }
+
+            private void render() {
+                if (report == null) return;
+                String project = projectBox.getSelectedIndex() <= 0 ? null : (String) projectBox.getSelectedItem();
+                BugPriority priority = priorityBox.getSelectedItem() instanceof BugPriority bp ? bp : null;
+                chart.setSeries(report.series((BugReportEngine.Granularity) granularityBox.getSelectedItem(), project, priority));
+                double days = report.meanCycleDays(project, priority);
+                cycleLabel.setText(Double.isNaN(days) ? "Mean time to close: n/a"
+                        : String.format("Mean time to close: %.1f days", days));
+            }
+        }
+    }
+
+    // Simple grouped bar chart: opened (green) and closed (grey) per bucket, newest buckets on the right
+    static class TrendChart extends JPanel {
+        private static final int MAX_BUCKETS = 60;
+        private static final Color OPENED = new Color(34, 94, 45);
+        private static final Color CLOSED = new Color(150, 150, 150);
+        private SortedMap<LocalDate, long[]> series = new TreeMap<>();
+
+        TrendChart() {
+            setBackground(Color.WHITE);
+        }
+
+        void setSeries(SortedMap<LocalDate, long[]> series) {
+            this.series = series;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Insets in = getInsets();
+            int left = in.left + 40, right = getWidth() - in.right - 10;
+            int top = in.top + 10, bottom = getHeight() - in.bottom - 30;
+            if (series.isEmpty() || right <= left || bottom <= top) {
+                g.setColor(Color.GRAY);
+                g.drawString("No data", (left + right) / 2 - 20, (top + bottom) / 2);
+                return;
+            }
+            List<Map.Entry<LocalDate, long[]>> entries = new ArrayList<>(series.entrySet());
+            if (entries.size() > MAX_BUCKETS) entries = entries.subList(entries.size() - MAX_BUCKETS, entries.size());
+            long max = 1;
+            for (Map.Entry<LocalDate, long[]> e : entries) max = Math.max(max, Math.max(e.getValue()[0], e.getValue()[1]));
+
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawLine(left, bottom, right, bottom);
+            g.setColor(Color.DARK_GRAY);
+            g.drawString(String.valueOf(max), in.left + 4, top + 10);
+            g.drawString("0", in.left + 4, bottom);
+
+            int slot = Math.max(2, (right - left) / entries.size());
+            int bar = Math.max(1, (slot - 4) / 2);
+            int labelEvery = Math.max(1, 70 / slot);
+            for (int i = 0; i < entries.size(); i++) {
+                long[] v = entries.get(i).getValue();
+                int x = left + i * slot + 2;
+                int hOpen = (int) (v[0] * (bottom - top) / max);
+                int hClosed = (int) (v[1] * (bottom - top) / max);
+                g.setColor(OPENED);
+                g.fillRect(x, bottom - hOpen, bar, hOpen);
+                g.setColor(CLOSED);
+                g.fillRect(x + bar, bottom - hClosed, bar, hClosed);
+                if (i % labelEvery == 0) {
+                    g.setColor(Color.DARK_GRAY);
+                    g.drawString(entries.get(i).getKey().toString().substring(5), x, bottom + 15);
+                }
+            }
+        }
+    }
+
+    // ---------------------- Bug tables ----------------------
+    /*
+      Bug tables read fields straight from the Bug objects: no Object[] per row, no toString() per paint.
+      - BugTableModel maps columns to Bug getters; the ID column hands over the Bug itself, so ids are never boxed
+      - every renderer here is also a CellPainter, and BugTableUI paints visible cells through that
+        directly, skipping CellRendererPane (which creates a Graphics per cell)
+      - labels, colours and char buffers are computed once and reused, so scrolling allocates next to nothing
+    */
+    enum BugColumn {
+        ID("ID", Bug.class),
+        NAME("Name", String.class),
+        TYPE("Type", String.class),
+        PRIORITY("Priority", BugPriority.class),
+        STATUS("Status", BugStatus.class),
+        PROJECT("Project", String.class),
+        ASSIGNED_TO("Assigned To", String.class),
+        REPORTED_BY("Reported By", String.class),
+        SCREENSHOT("Screenshot", String.class);
+
+        final String title;
+        final Class<?> type;
+
+        BugColumn(String title, Class<?> type) {
+            this.title = title;
+            this.type = type;
+        }
+
+        Object valueOf(Bug b) {
+            return switch (this) {
+                case ID -> b;
+                case NAME -> b.getName();
+                case TYPE -> b.getType();
+                case PRIORITY -> b.getPriority();
+                case STATUS -> b.getStatus();
+                case PROJECT -> b.getProjectName();
+                case ASSIGNED_TO -> b.getAssignedDeveloper();
+                case REPORTED_BY -> b.getReportedBy();
+                case SCREENSHOT -> b.getScreenshotPath();
+            };
+        }
+    }
+
+    static class BugTableModel extends AbstractTableModel {
+        private final BugColumn[] columns;
+        private List<Bug> rows = Collections.emptyList();
+
+        BugTableModel(BugColumn... columns) {
+            this.columns = columns;
+        }
+
+        // The list is used as-is (not copied); call again after it changes
+        void setRows(List<Bug> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        Bug bugAt(int row) {
+            return rows.get(row);
+        }
+
+        // Renderers per column plus the direct-painting UI; the table must keep a uniform row height
+        void installRenderers(JTable table) {
+            for (int i = 0; i < columns.length; i++) {
+                TableCellRenderer r = switch (columns[i]) {
+                    case ID -> new IdRenderer();
+                    case PRIORITY -> EnumRenderer.priority();
+                    case STATUS -> EnumRenderer.status();
+                    case SCREENSHOT -> new ThumbnailRenderer(table);
+                    default -> new TextRenderer();
+                };
+                table.getColumnModel().getColumn(i).setCellRenderer(r);
+            }
+            table.setUI(new BugTableUI());
+        }
+
+        @Override public int getRowCount() { return rows.size(); }
+        @Override public int getColumnCount() { return columns.length; }
+        @Override public String getColumnName(int col) { return columns[col].title; }
+        @Override public Class<?> getColumnClass(int col) { return columns[col].type; }
+        @Override public boolean isCellEditable(int row, int col) { return false; }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            return columns[col].valueOf(rows.get(row));
+        }
+    }
+
+    // Paints one cell into (0, 0, width, height) of g, which BugTableUI has translated; must not allocate or draw outside the cell
+    interface CellPainter {
+        void paintCell(Graphics g, JTable table, Object value, boolean selected, int width, int height);
+    }
+
+    // Shared text drawing: copies into a reused char buffer and cuts with "..." so nothing spills into the next cell
+    static class CellText {
+        private static final int PAD = 4;
+        private static final char[] ELLIPSIS = {'.', '.', '.'};
+        private char[] buf = new char[64];
+
+        void draw(Graphics g, JTable table, String s, Color color, boolean selected, int width, int height) {
+            if (s == null || s.isEmpty()) return;
+            if (s.length() > buf.length) buf = new char[Math.max(s.length(), buf.length * 2)];
+            s.getChars(0, s.length(), buf, 0);
+            draw(g, table, buf, 0, s.length(), color, selected, width, height);
+        }
+
+        static void draw(Graphics g, JTable table, char[] chars, int off, int len, Color color, boolean selected, int width, int height) {
+            Font font = table.getFont();
+            FontMetrics fm = table.getFontMetrics(font);
+            g.setFont(font);
+            g.setColor(selected ? table.getSelectionForeground() : color != null ? color : table.getForeground());
+            int avail = width - 2 * PAD;
+            int baseline = (height + fm.getAscent() - fm.getDescent()) / 2;
+            if (fm.charsWidth(chars, off, len) <= avail) {
+                g.drawChars(chars, off, len, PAD, baseline);
+                return;
+            }
+            int room = avail - fm.charsWidth(ELLIPSIS, 0, ELLIPSIS.length);
+            int n = 0, used = 0;
+            while (n < len && used + fm.charWidth(chars[off + n]) <= room) used += fm.charWidth(chars[off + n++]);
+            g.drawChars(chars, off, n, PAD, baseline);
+            if (room > 0) g.drawChars(ELLIPSIS, 0, ELLIPSIS.length, PAD + used, baseline);
+        }
+    }
+
+    // Plain string columns
+    static class TextRenderer extends DefaultTableCellRenderer implements CellPainter {
+        private final CellText text = new CellText();
+
+        @Override
+        public void paintCell(Graphics g, JTable table, Object value, boolean selected, int width, int height) {
+            text.draw(g, table, (String) value, null, selected, width, height);
+        }
+    }
+
+    // Formats the bug id into a reused char buffer instead of allocating a String per cell
+    static class IdRenderer extends DefaultTableCellRenderer implements CellPainter {
+        private final char[] digits = new char[11];
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean selected, boolean focused, int row, int col) {
+            super.getTableCellRendererComponent(table, null, selected, focused, row, col);
+            setText(value == null ? "" : String.valueOf(((Bug) value).getId())); // component path: tooltips, printing
+            return this;
+        }
+
+        @Override
+        public void paintCell(Graphics g, JTable table, Object value, boolean selected, int width, int height) {
+            long v = ((Bug) value).getId();
+            boolean negative = v < 0;
+            v = Math.abs(v);
+            int start = digits.length;
+            do {
+                digits[--start] = (char) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            if (negative) digits[--start] = '-';
+            CellText.draw(g, table, digits, start, digits.length - start, null, selected, width, height);
+        }
+    }
+
+    // Enum cells with labels and colours computed once per constant
+    static class EnumRenderer extends DefaultTableCellRenderer implements CellPainter {
+        private final String[] labels;
+        private final char[][] chars;
+        private final Color[] colors;
+
+        static EnumRenderer priority() {
+            return new EnumRenderer(new String[]{"Low", "Medium", "High", "Critical"},
+                    new Color[]{new Color(120, 120, 120), new Color(40, 40, 40), new Color(200, 110, 0), new Color(190, 30, 30)});
+        }
+
+        static EnumRenderer status() {
+            return new EnumRenderer(new String[]{"Open", "In Progress", "Closed"},
+                    new Color[]{new Color(30, 90, 170), new Color(200, 110, 0), new Color(34, 94, 45)});
+        }
+
+        EnumRenderer(String[] labels, Color[] colors) {
+            this.labels = labels;
+            this.colors = colors;
+            chars = new char[labels.length][];
+            for (int i = 0; i < labels.length; i++) chars[i] = labels[i].toCharArray();
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean selected, boolean focused, int row, int col) {
+            super.getTableCellRendererComponent(table, null, selected, focused, row, col);
+            if (value == null) return this;
+            int i = ((Enum<?>) value).ordinal();
+            setText(labels[i]);
+            if (!selected) setForeground(colors[i]);
+            return this;
+        }
+
+        @Override
+        public void paintCell(Graphics g, JTable table, Object value, boolean selected, int width, int height) {
+            if (value == null) return;
+            int i = ((Enum<?>) value).ordinal();
+            CellText.draw(g, table, chars[i], 0, chars[i].length, colors[i], selected, width, height);
+        }
+    }
+
+    // Screenshot column: thumbnail from ThumbnailCache, repainting the table when a lazy load finishes
+    static class ThumbnailRenderer extends DefaultTableCellRenderer implements CellPainter {
+        private static final char[] LOADING = {'.', '.', '.'};
+        private static final char[] MISSING = {'n', '/', 'a'};
+        private final Runnable repaint;
+
+        ThumbnailRenderer(JTable table) {
+            repaint = table::repaint;
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean selected, boolean focused, int row, int col) {
+            super.getTableCellRendererComponent(table, null, selected, focused, row, col);
+            String path = (String) value;
+            if (path == null || path.isEmpty()) {
+                setIcon(null);
+                setText("");
+                return this;
+            }
+            ImageIcon icon = ThumbnailCache.get(path, repaint);
+            setIcon(icon == ThumbnailCache.MISSING ? null : icon);
+            setText(icon == null ? "..." : icon == ThumbnailCache.MISSING ? "n/a" : "");
+            return this;
+        }
+
+        @Override
+        public void paintCell(Graphics g, JTable table, Object value, boolean selected, int width, int height) {
+            String path = (String) value;
+            if (path == null || path.isEmpty()) return;
+            ImageIcon icon = ThumbnailCache.get(path, repaint);
+            if (icon == null || icon == ThumbnailCache.MISSING) {
+                char[] text = icon == null ? LOADING : MISSING;
+                CellText.draw(g, table, text, 0, text.length, Color.GRAY, selected, width, height);
+                return;
+            }
+            int w = Math.min(icon.getIconWidth(), width), h = Math.min(icon.getIconHeight(), height);
+            g.drawImage(icon.getImage(), (width - w) / 2, (height - h) / 2, w, h, null);
+        }
+    }
+
+    /*
+      Paints visible cells straight through CellPainter with one Graphics for the whole table.
+      Assumes a uniform row height; cells whose renderer is not a CellPainter go through the normal renderer pane.
+    */
+    static class BugTableUI extends javax.swing.plaf.basic.BasicTableUI {
+        private final Rectangle clip = new Rectangle();
+        private Color alternateRow;
+
+        @Override
+        public void installUI(JComponent c) {
+            super.installUI(c);
+            alternateRow = UIManager.getColor("Table.alternateRowColor");
+        }
+
+        @Override
+        public void paint(Graphics g, JComponent c) {
+            int rows = table.getRowCount(), cols = table.getColumnCount();
+            if (rows == 0 || cols == 0) return;
+            clip.setBounds(0, 0, table.getWidth(), table.getHeight());
+            g.getClipBounds(clip);
+            int rowHeight = table.getRowHeight();
+            int first = Math.max(0, clip.y / rowHeight);
+            int last = Math.min(rows - 1, (clip.y + clip.height - 1) / rowHeight);
+            TableColumnModel cm = table.getColumnModel();
+            int right = Math.min(cm.getTotalColumnWidth(), clip.x + clip.width);
+
+            for (int row = first; row <= last; row++) {
+                int y = row * rowHeight;
+                if (alternateRow != null && row % 2 == 1) {
+                    g.setColor(alternateRow);
+                    g.fillRect(clip.x, y, right - clip.x, rowHeight);
+                }
+                int x = 0;
+                for (int col = 0; col < cols && x < right; col++) {
+                    int w = cm.getColumn(col).getWidth();
+                    if (x + w > clip.x) paintCell(g, row, col, x, y, w, rowHeight);
+                    x += w;
+                }
+            }
+
+            g.setColor(table.getGridColor());
+            if (table.getShowHorizontalLines()) {
+                for (int row = first; row <= last; row++) {
+                    int y = (row + 1) * rowHeight - 1;
+                    g.drawLine(clip.x, y, right - 1, y);
+                }
+            }
+            if (table.getShowVerticalLines()) {
+                int x = 0;
+                for (int col = 0; col < cols && x < right; col++) {
+                    x += cm.getColumn(col).getWidth();
+                    g.drawLine(x - 1, first * rowHeight, x - 1, (last + 1) * rowHeight - 1);
+                }
+            }
+            rendererPane.removeAll();
+        }
+
+        private void paintCell(Graphics g, int row, int col, int x, int y, int w, int h) {
+            TableCellRenderer renderer = table.getCellRenderer(row, col);
+            if (!(renderer instanceof CellPainter painter)) {
+                Component comp = table.prepareRenderer(renderer, row, col);
+                rendererPane.paintComponent(g, comp, table, x, y, w, h, true);
+                return;
+            }
+            boolean selected = table.isCellSelected(row, col);
+            if (selected) {
+                g.setColor(table.getSelectionBackground());
+                g.fillRect(x, y, w, h);
+            }
+            g.translate(x, y);
+            painter.paintCell(g, table, table.getValueAt(row, col), selected, w, h);
+            g.translate(-x, -y);
         }
     }
 
@@ -823,13 +4205,11 @@ public class BugTrackingSystem {
                     JOptionPane.showMessageDialog(this, "Fill username & password");
                     return;
                 }
-                boolean exists = users.stream().anyMatch(u -> u.getUsername().equals(username));
-                if (exists) {
+                if (UserDirectory.find(username) != null || !UserDirectory.add(new User(username, password, role))) {
                     JOptionPane.showMessageDialog(this, "Username already exists");
                     return;
                 }
-                users.add(new User(username, password, role));
-                FileHandler.saveUsers(users);
+                loadBalancer.setDevelopers(UserDirectory.usernamesWithRole(Role.DEVELOPER));
                 JOptionPane.showMessageDialog(this, "User registered");
                 dispose();
             });
@@ -859,7 +4239,9 @@ public class BugTrackingSystem {
             JTextField projectF = new JTextField();
             JLabel assignL = new JLabel("Assign to (dev):");
             JComboBox<String> devBox = new JComboBox<>();
-            for (User u : users) if (u.getRole() == Role.DEVELOPER) devBox.addItem(u.getUsername());
+            for (String dev : UserDirectory.usernamesWithRole(Role.DEVELOPER)) devBox.addItem(dev);
+            String suggested = loadBalancer.suggest();
+            if (suggested != null) devBox.setSelectedItem(suggested);
             JLabel screenshotL = new JLabel("Screenshot Path:");
             JTextField screenshotF = new JTextField();
             JButton browse = new JButton("Browse");
@@ -914,31 +4296,49 @@ public class BugTrackingSystem {
                 if (res == JFileChooser.APPROVE_OPTION) screenshotF.setText(jc.getSelectedFile().getAbsolutePath());
             });
 
-            submit.addActionListener(e -> {
-                String title = nameF.getText().trim();
-                if (title.isEmpty()) {
-                    JOptionPane.showMessageDialog(this, "Title required");
-                    return;
-                }
-                int newId = bugs.isEmpty() ? 1 : bugs.get(bugs.size() - 1).getId() + 1;
+            // runs on the EDT once the screenshot (if any) is in the attachment store
+            java.util.function.Consumer<String> createBug = screenshot -> {
                 BugPriority pr = (BugPriority) priorityBox.getSelectedItem();
                 BugLevel lv = (BugLevel) levelBox.getSelectedItem();
                 String assigned = devBox.getItemCount() > 0 ? (String) devBox.getSelectedItem() : "Unassigned";
-                Bug b = new Bug(newId, title,
+                BugRepository.report(nameF.getText().trim(),
                         typeF.getText().trim(),
                         pr, lv,
                         projectF.getText().trim(),
-                        new Date(),
-                        BugStatus.OPEN,
                         assigned,
-                        screenshotF.getText().trim(),
+                        screenshot,
                         currentUser.getUsername());
-                bugs.add(b);
-                FileHandler.saveBugs(bugs);
-                if (!"Unassigned".equals(assigned))
-                    EmailSimulator.sendEmail(assigned, "New Bug Assigned", "You were assigned: " + title);
+                if (!screenshot.isEmpty()) ThumbnailCache.generate(screenshot);
                 JOptionPane.showMessageDialog(this, "Bug reported");
                 dispose();
+            };
+
+            submit.addActionListener(e -> {
+                if (nameF.getText().trim().isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "Title required");
+                    return;
+                }
+                String shot = screenshotF.getText().trim();
+                if (shot.isEmpty() || AttachmentStore.isRef(shot)) {
+                    createBug.accept(shot);
+                    return;
+                }
+                // copy + hash the image off the EDT
+                submit.setEnabled(false);
+                new SwingWorker<String, Void>() {
+                    protected String doInBackground() throws IOException {
+                        return AttachmentStore.ingest(new File(shot));
+                    }
+
+                    protected void done() {
+                        try {
+                            createBug.accept(get());
+                        } catch (Exception ex) {
+                            submit.setEnabled(true);
+                            JOptionPane.showMessageDialog(BugReportDialog.this, "Could not store screenshot: " + ex.getMessage(), "Screenshot", JOptionPane.WARNING_MESSAGE);
+                        }
+                    }
+                }.execute();
             });
         }
     }